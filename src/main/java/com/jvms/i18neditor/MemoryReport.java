@@ -0,0 +1,56 @@
+package com.jvms.i18neditor;
+
+/**
+ * This class represents a report of the memory used by the translation values of a {@link TranslationMatrix}.
+ * 
+ * @author Jacob van Mourik
+ */
+public class MemoryReport {
+	private final ValueStorage storage;
+	private final int valueCount;
+	private final long stringSize;
+	private final long allocatedSize;
+	
+	public MemoryReport(ValueStorage storage, int valueCount, long stringSize, long allocatedSize) {
+		this.storage = storage;
+		this.valueCount = valueCount;
+		this.stringSize = stringSize;
+		this.allocatedSize = allocatedSize;
+	}
+	
+	public ValueStorage getStorage() {
+		return storage;
+	}
+	
+	public int getValueCount() {
+		return valueCount;
+	}
+	
+	/**
+	 * Gets the estimated number of bytes the values would take when stored as strings.
+	 * 
+	 * @return 	the number of bytes.
+	 */
+	public long getStringSize() {
+		return stringSize;
+	}
+	
+	/**
+	 * Gets the number of bytes allocated for storing the values.
+	 * 
+	 * @return 	the number of bytes.
+	 */
+	public long getAllocatedSize() {
+		return allocatedSize;
+	}
+	
+	/**
+	 * Gets the number of bytes saved compared to storing the values as strings, 
+	 * which is negative when the storage uses more memory.
+	 * 
+	 * @return 	the number of bytes.
+	 */
+	public long getSavedSize() {
+		return stringSize - allocatedSize;
+	}
+}
@@ -0,0 +1,204 @@
+package com.jvms.i18neditor;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A column of value handles of a {@link TranslationMatrix}, indexed by row.
+ *
+ * <p>The column is stored as a persistent trie in which each node has 32 children, so a lookup or update
+ * only touches a few nodes, even for large numbers of rows. Taking a {@link #snapshot()} is constant time,
+ * after which updates copy the nodes on the path to the updated row instead of modifying them, so the
+ * snapshot and the column share all unchanged nodes.</p>
+ *
+ * <p>Nodes created after the last snapshot are owned by the column and are updated in place, which keeps
+ * filling a column without taking snapshots as cheap as filling an array.</p>
+ *
+ * <p>A column is not thread safe, access is guarded by the {@link TranslationMatrix} owning the column.
+ * Snapshots are immutable and can be read by any thread.</p>
+ *
+ * @author Jacob van Mourik
+ */
+final class PersistentColumn {
+	private final static int BITS = 5;
+	private final static int WIDTH = 1 << BITS;
+	private final static int MASK = WIDTH - 1;
+	private Node root;
+	private int shift;
+	private Object owner = new Object();
+
+	/**
+	 * Gets the handle of a row.
+	 *
+	 * @param 	row the row.
+	 * @return 	the handle or {@code 0} if the row has no value.
+	 */
+	public long get(int row) {
+		return get(root, shift, row);
+	}
+
+	/**
+	 * Sets the handle of a row.
+	 *
+	 * @param 	row the row.
+	 * @param 	handle the handle or {@code 0} to remove the value.
+	 */
+	public void set(int row, long handle) {
+		if (handle == 0 && get(row) == 0) {
+			return;
+		}
+		while (row >>> (shift + BITS) != 0) {
+			Node newRoot = new Node(owner, false);
+			newRoot.children[0] = root;
+			root = newRoot;
+			shift += BITS;
+		}
+		root = editable(root, shift == 0);
+		Node node = root;
+		for (int s = shift; s > 0; s -= BITS) {
+			int i = (row >>> s) & MASK;
+			node = node.children[i] = editable(node.children[i], s == BITS);
+		}
+		node.values[row & MASK] = handle;
+	}
+
+	/**
+	 * Replaces all handles of the column by the result of the given function.
+	 *
+	 * @param 	function the function to apply to each handle.
+	 */
+	public void replaceAll(LongUnaryOperator function) {
+		root = replaceAll(root, shift, function);
+	}
+
+	/**
+	 * Calls the given consumer for each row having a handle, in order of row.
+	 *
+	 * @param 	consumer the consumer.
+	 */
+	public void forEach(RowConsumer consumer) {
+		forEach(root, shift, 0, consumer);
+	}
+
+	/**
+	 * Takes a snapshot of the column, which is isolated from later updates of the column.
+	 *
+	 * @return 	the snapshot.
+	 */
+	public Snapshot snapshot() {
+		// Nodes of the current owner are now shared with the snapshot, so they may no longer be modified
+		owner = new Object();
+		return new Snapshot(root, shift);
+	}
+
+	private Node editable(Node node, boolean leaf) {
+		if (node == null) {
+			return new Node(owner, leaf);
+		}
+		return node.owner == owner ? node : node.copy(owner);
+	}
+
+	private Node replaceAll(Node node, int shift, LongUnaryOperator function) {
+		if (node == null) {
+			return null;
+		}
+		Node result = editable(node, shift == 0);
+		for (int i = 0; i < WIDTH; i++) {
+			if (shift == 0) {
+				if (result.values[i] != 0) {
+					result.values[i] = function.applyAsLong(result.values[i]);
+				}
+			} else {
+				result.children[i] = replaceAll(result.children[i], shift - BITS, function);
+			}
+		}
+		return result;
+	}
+
+	private static void forEach(Node node, int shift, int offset, RowConsumer consumer) {
+		if (node == null) {
+			return;
+		}
+		for (int i = 0; i < WIDTH; i++) {
+			if (shift == 0) {
+				if (node.values[i] != 0) {
+					consumer.accept(offset + i, node.values[i]);
+				}
+			} else {
+				forEach(node.children[i], shift - BITS, offset + (i << shift), consumer);
+			}
+		}
+	}
+
+	private static long get(Node node, int shift, int row) {
+		if (node == null || row >>> (shift + BITS) != 0) {
+			return 0;
+		}
+		for (int s = shift; s > 0; s -= BITS) {
+			node = node.children[(row >>> s) & MASK];
+			if (node == null) {
+				return 0;
+			}
+		}
+		return node.values[row & MASK];
+	}
+
+	/**
+	 * An immutable snapshot of a column.
+	 */
+	public final static class Snapshot {
+		private final Node root;
+		private final int shift;
+
+		private Snapshot(Node root, int shift) {
+			this.root = root;
+			this.shift = shift;
+		}
+
+		/**
+		 * Gets the handle of a row at the time of the snapshot.
+		 *
+		 * @param 	row the row.
+		 * @return 	the handle or {@code 0} if the row had no value.
+		 */
+		public long get(int row) {
+			return PersistentColumn.get(root, shift, row);
+		}
+
+		/**
+		 * Calls the given consumer for each row having a handle at the time of the snapshot, in order of row.
+		 *
+		 * @param 	consumer the consumer.
+		 */
+		public void forEach(RowConsumer consumer) {
+			PersistentColumn.forEach(root, shift, 0, consumer);
+		}
+	}
+
+	/**
+	 * A consumer of the rows of a column.
+	 */
+	@FunctionalInterface
+	public interface RowConsumer {
+		void accept(int row, long handle);
+	}
+
+	private final static class Node {
+		private final Object owner;
+		private final Node[] children;
+		private final long[] values;
+
+		private Node(Object owner, boolean leaf) {
+			this(owner, leaf ? null : new Node[WIDTH], leaf ? new long[WIDTH] : null);
+		}
+
+		private Node(Object owner, Node[] children, long[] values) {
+			this.owner = owner;
+			this.children = children;
+			this.values = values;
+		}
+
+		private Node copy(Object owner) {
+			return new Node(owner, children == null ? null : children.clone(), values == null ? null : values.clone());
+		}
+	}
+}
@@ -1,16 +1,25 @@
 package com.jvms.i18neditor;
 
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.SortedMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
-import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+import com.jvms.i18neditor.io.FileStamp;
 import com.jvms.i18neditor.util.ResourceKeys;
 
 /**
@@ -26,15 +35,35 @@ import com.jvms.i18neditor.util.ResourceKeys;
  * <p>Objects can listen to a resource by adding a {@link ResourceListener} which 
  * will be called when any change is made to the {@code translations}.</p>
  * 
+ * <p>A resource is safe for use by multiple threads. Mutations are serialized by a lock per resource, 
+ * so each mutation, including the removal of parent and child keys, is applied atomically. Reads do not 
+ * take any lock, as the {@link TranslationMatrix} serves them from its last published view. A read sees each
+ * value as soon as it has been changed, so a read during a mutation may see part of it. Use {@link #snapshot()}
+ * for a consistent view or {@link #getVersion()} to detect concurrent changes. Listeners are never called while the lock is held, but are called by one thread at a time, 
+ * in the order in which the changes were made. Listeners may therefore be called from any thread that 
+ * modifies the resource.</p>
+ * 
  * @author Jacob van Mourik
  */
 public class Resource {
 	private final Path path;
 	private final Locale locale;
 	private final ResourceType type;
-	private final List<ResourceListener> listeners = Lists.newLinkedList();
-	private SortedMap<String,String> translations = Maps.newTreeMap();
-	private String checksum;
+	private final List<ResourceListener> listeners = Lists.newCopyOnWriteArrayList();
+	private final TranslationMatrix matrix;
+	private final int column;
+	private final SortedMap<String,String> translations;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Queue<ResourceEvent> pendingEvents = Queues.newConcurrentLinkedQueue();
+	private final AtomicBoolean dispatching = new AtomicBoolean();
+	private volatile SortedMap<String,String> snapshot;
+	private volatile String checksum;
+	private volatile FileStamp fileStamp;
+	private volatile boolean dirty;
+	private volatile long version;
+	private int batchDepth;
+	private final Map<String,String> changes = Maps.newHashMap();
+	private final Map<String,String> renames = Maps.newHashMap();
 
 	/**
 	 * See {@link #Resource(ResourceType, Path, Locale)}.
@@ -43,17 +72,32 @@ public class Resource {
 		this(type, path, null);
 	}
 	
+	/**
+	 * See {@link #Resource(ResourceType, Path, Locale, TranslationMatrix)}.
+	 */
+	public Resource(ResourceType type, Path path, Locale locale) {
+		this(type, path, locale, new TranslationMatrix());
+	}
+	
 	/**
 	 * Creates a new instance of a resource.
 	 * 
+	 * <p>The translations of the resource are stored in a new column of the given matrix. Resources of the 
+	 * same project should share a single matrix, so each translation key is only stored once.</p>
+	 * 
 	 * @param 	type the type of the resource.
 	 * @param 	path the path to the file on disk.
 	 * @param 	locale the locale of the translations.
+	 * @param 	matrix the matrix to store the translations in.
 	 */
-	public Resource(ResourceType type, Path path, Locale locale) {
+	public Resource(ResourceType type, Path path, Locale locale, TranslationMatrix matrix) {
 		this.path = path;
 		this.locale = locale;
 		this.type = type;
+		this.matrix = matrix;
+		this.column = matrix.addColumn();
+		this.translations = Collections.unmodifiableSortedMap(Maps.filterValues(
+				Maps.transformValues(matrix.getKeyTable().getIds(), this::getValue), Objects::nonNull));
 	}
 	
 	/**
@@ -86,14 +130,74 @@ public class Resource {
 	/**
 	 * Gets a map of the translations of the resource.
 	 * 
-	 * <p>The returned map is an immutable sorted map. Modifications to the translations should be done via 
+	 * <p>The returned map is an unmodifiable live view of the translations, changes made to the resource 
+	 * will be visible in the map. Modifications to the translations should be done via 
 	 * {@link #storeTranslation(String, String)}, {@link #removeTranslation(String)} or 
-	 * {@link #renameTranslation(String, String)}.</p>
+	 * {@link #renameTranslation(String, String)}. Use {@link #snapshot()} to get a copy which is 
+	 * isolated from later changes.</p>
 	 * 
 	 * @return 	the translations of the resource.
 	 */
 	public SortedMap<String,String> getTranslations() {
-		return ImmutableSortedMap.copyOf(translations);
+		return translations;
+	}
+	
+	/**
+	 * Gets the keys of the translations of the resource in sorted order.
+	 * 
+	 * <p>The returned set is an unmodifiable live view of the keys.</p>
+	 * 
+	 * @return 	the translation keys.
+	 */
+	public Set<String> getTranslationKeys() {
+		return translations.keySet();
+	}
+	
+	/**
+	 * Gets the number of translations of the resource.
+	 * 
+	 * @return 	the number of translations.
+	 */
+	public int getTranslationCount() {
+		return matrix.getValueCount(column);
+	}
+	
+	/**
+	 * Gets an immutable snapshot of the translations of the resource.
+	 * 
+	 * <p>Taking a snapshot does not copy the translations, the snapshot shares its structure with 
+	 * the resource, so it can be taken at any time. The snapshot can be read from any thread while 
+	 * the resource is being modified. The lock of the resource is only taken when the resource has changed
+	 * since the last snapshot, to wait for a mutation in progress.</p>
+	 * 
+	 * @return 	the snapshot of the translations.
+	 */
+	public SortedMap<String,String> snapshot() {
+		SortedMap<String,String> result = snapshot;
+		if (result != null) {
+			return result;
+		}
+		lock.lock();
+		try {
+			if (snapshot == null) {
+				snapshot = matrix.snapshot(column);
+			}
+			return snapshot;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Gets the version of the translations of the resource, which is incremented on every change.
+	 * 
+	 * <p>This allows reading the translations without locking: when the version is the same before 
+	 * and after reading, no changes have been made in the meantime.</p>
+	 * 
+	 * @return 	the version.
+	 */
+	public long getVersion() {
+		return version;
 	}
 	
 	/**
@@ -102,7 +206,79 @@ public class Resource {
 	 * @param translations	the translations
 	 */
 	public void setTranslations(SortedMap<String,String> translations) {
-		this.translations = translations;
+		TranslationKeyTable keyTable = matrix.getKeyTable();
+		int[] ids = new int[translations.size()];
+		String[] values = new String[translations.size()];
+		int i = 0;
+		for (Map.Entry<String,String> entry : translations.entrySet()) {
+			ids[i] = keyTable.intern(entry.getKey());
+			values[i++] = entry.getValue();
+		}
+		setTranslations(ids, values);
+	}
+	
+	/**
+	 * Sets the translations of the resource by the ids of their keys in the key table of the resource.
+	 * 
+	 * <p>This avoids looking up each key when the translations of multiple resources sharing a key table 
+	 * are set at once.</p>
+	 * 
+	 * @param 	ids the ids of the keys of the translations.
+	 * @param 	values the values of the translations, in the same order as the ids.
+	 */
+	public void setTranslations(int[] ids, String[] values) {
+		Preconditions.checkArgument(ids.length == values.length, "Number of ids and values differ.");
+		lock.lock();
+		try {
+			snapshot = null;
+			matrix.setColumn(column, ids, values);
+			version++;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Updates the translations of the resource to the given translations, only changing the translations
+	 * which differ. Listeners will be called once with all changes, like with {@link #batch(Runnable)}.
+	 * 
+	 * <p>This is meant for applying changes made to the resource file by another program. The update is
+	 * skipped when the resource has unsaved changes or has been changed since the given version, so
+	 * translations edited in the meantime are never overwritten. The update does not mark the resource as dirty.</p>
+	 * 
+	 * @param 	translations the translations.
+	 * @param 	version the version of the resource the given translations are based on.
+	 * @return 	the keys of the changed translations, or an empty optional if the update has been skipped.
+	 */
+	public Optional<Set<String>> updateTranslations(SortedMap<String,String> translations, long version) {
+		Set<String> result = Sets.newHashSet();
+		lock.lock();
+		try {
+			if (dirty || this.version != version) {
+				return Optional.empty();
+			}
+			batch(() -> {
+				Lists.newArrayList(this.translations.keySet()).forEach(key -> {
+					if (!translations.containsKey(key)) {
+						remove(key);
+					}
+				});
+				translations.forEach((key, value) -> {
+					if (!value.equals(getValue(key))) {
+						recordChange(key);
+						setValue(key, value);
+					}
+				});
+				result.addAll(changes.keySet());
+			});
+			dirty = false;
+		} finally {
+			lock.unlock();
+		}
+		if (!lock.isHeldByCurrentThread()) {
+			dispatchEvents();
+		}
+		return Optional.of(result);
 	}
 	
 	/**
@@ -112,7 +288,7 @@ public class Resource {
 	 * @return 	whether a translation with the given key exists.
 	 */
 	public boolean hasTranslation(String key) {
-		return !Strings.isNullOrEmpty(translations.get(key));
+		return !Strings.isNullOrEmpty(getValue(key));
 	}
 	
 	/**
@@ -122,7 +298,47 @@ public class Resource {
 	 * @return 	value of the translation or {@code null} if there is no translation for the given key.
 	 */
 	public String getTranslation(String key) {
-		return translations.get(key);
+		return getValue(key);
+	}
+	
+	/**
+	 * Gets a translation from the resource's translations by the id of its key in the key table.
+	 * 
+	 * <p>This allows comparing the translations of resources sharing the same key table 
+	 * without looking up the key in each resource.</p>
+	 * 
+	 * @param	id the id of the key of the translation to get.
+	 * @return 	value of the translation or {@code null} if there is no translation for the given key id.
+	 */
+	public String getTranslation(int id) {
+		return getValue(id);
+	}
+	
+	/**
+	 * Gets the key table in which the translation keys of the resource are stored.
+	 * 
+	 * @return 	the key table.
+	 */
+	public TranslationKeyTable getKeyTable() {
+		return matrix.getKeyTable();
+	}
+	
+	/**
+	 * Gets the matrix in which the translations of the resource are stored.
+	 * 
+	 * @return 	the matrix.
+	 */
+	public TranslationMatrix getMatrix() {
+		return matrix;
+	}
+	
+	/**
+	 * Gets the column of the matrix in which the translations of the resource are stored.
+	 * 
+	 * @return 	the column.
+	 */
+	public int getColumn() {
+		return column;
 	}
 	
 	/**
@@ -140,16 +356,7 @@ public class Resource {
 	 */
 	public void storeTranslation(String key, String value) {
 		checkKey(key);
-		String existing = translations.get(key);
-		if (value == null || existing != null && existing.equals(value)) {
-			return;
-		}
-		if (!supportsParentValues()) {
-			removeParents(key);
-			removeChildren(key);
-		}
-		translations.put(key, value);
-		notifyListeners();
+		batch(() -> putTranslation(key, value));
 	}
 	
 	/**
@@ -159,9 +366,10 @@ public class Resource {
 	 * @param 	key the key of the translation to remove.
 	 */
 	public void removeTranslation(String key) {
-		removeChildren(key);
-		translations.remove(key);
-		notifyListeners();
+		batch(() -> {
+			removeChildren(key);
+			remove(key);
+		});
 	}
 	
 	/**
@@ -173,8 +381,7 @@ public class Resource {
 	 */
 	public void renameTranslation(String key, String newKey) {
 		checkKey(newKey);
-		duplicateTranslation(key, newKey, false);
-		notifyListeners();
+		batch(() -> duplicateTranslation(key, newKey, false));
 	}
 	
 	/**
@@ -185,8 +392,37 @@ public class Resource {
 	 */
 	public void duplicateTranslation(String key, String newKey) {
 		checkKey(newKey);
-		duplicateTranslation(key, newKey, true);
-		notifyListeners();
+		batch(() -> duplicateTranslation(key, newKey, true));
+	}
+	
+	/**
+	 * Applies a batch of mutations to the resource's translations.
+	 * 
+	 * <p>Listeners will not be called for the individual mutations made by the given function, instead a single 
+	 * event describing all changes will be fired once the batch has been completed. Batches may be nested, 
+	 * in which case the event will be fired when the outermost batch has been completed.</p>
+	 * 
+	 * <p>The batch is applied atomically, other threads can not modify the resource until the batch has been completed.</p>
+	 * 
+	 * @param 	mutations the function applying the mutations.
+	 */
+	public void batch(Runnable mutations) {
+		lock.lock();
+		try {
+			batchDepth++;
+			try {
+				mutations.run();
+			} finally {
+				if (--batchDepth == 0 && !changes.isEmpty()) {
+					queueEvent();
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		if (!lock.isHeldByCurrentThread()) {
+			dispatchEvents();
+		}
 	}
 	
 	/**
@@ -239,42 +475,182 @@ public class Resource {
 		this.checksum = checksum;
 	}
 	
+	/**
+	 * Gets the stamp of the resource's file at the moment its checksum was created.
+	 * 
+	 * @return	the file stamp.
+	 */
+	public FileStamp getFileStamp() {
+		return fileStamp;
+	}
+	
+	/**
+	 * Sets the stamp of the resource's file at the moment its checksum was created.
+	 * 
+	 * @param 	fileStamp the file stamp to set.
+	 */
+	public void setFileStamp(FileStamp fileStamp) {
+		this.fileStamp = fileStamp;
+	}
+	
+	/**
+	 * Checks whether the translations of the resource have unsaved changes.
+	 * 
+	 * @return	whether the resource has unsaved changes.
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+	
+	/**
+	 * Sets whether the translations of the resource have unsaved changes.
+	 * Any change made to the translations will mark the resource as dirty.
+	 * 
+	 * @param 	dirty whether the resource has unsaved changes.
+	 */
+	public void setDirty(boolean dirty) {
+		this.dirty = dirty;
+	}
+	
+	/**
+	 * Marks the resource as having no unsaved changes, unless it has been changed since the given version.
+	 * 
+	 * <p>This is meant for completing a write of the translations at the given version, which may be done
+	 * while the resource is being modified. The resource stays dirty until then, so it is not reloaded 
+	 * while being written, see {@link #updateTranslations(SortedMap, long)}.</p>
+	 * 
+	 * @param 	version the version of the resource which has been written.
+	 */
+	public void markSaved(long version) {
+		lock.lock();
+		try {
+			if (this.version == version) {
+				dirty = false;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	
 	private void duplicateTranslation(String key, String newKey, boolean keepOld) {
 		Map<String,String> newTranslations = Maps.newTreeMap();
-		translations.keySet().forEach(k -> {
-			if (ResourceKeys.isChildKeyOf(k, key)) {
-				String nk = ResourceKeys.create(newKey, ResourceKeys.childKey(k, key));
-				newTranslations.put(nk, translations.get(k));
-			}
+		childTranslations(key).forEach((k, v) -> {
+			newTranslations.put(newKey + k.substring(key.length()), v);
 		});
-		if (translations.containsKey(key)) {
-			newTranslations.put(newKey, translations.get(key));
+		String value = getValue(key);
+		if (value != null) {
+			newTranslations.put(newKey, value);
 		}
 		if (!keepOld) {
+			newTranslations.keySet().forEach(k -> {
+				String oldKey = key + k.substring(newKey.length());
+				String originalKey = renames.remove(oldKey);
+				renames.put(k, originalKey == null ? oldKey : originalKey);
+			});
 			removeChildren(key);
-			translations.remove(key);
+			remove(key);
+		}
+		newTranslations.forEach(this::putTranslation);
+	}
+	
+	private void putTranslation(String key, String value) {
+		String existing = getValue(key);
+		if (value == null || existing != null && existing.equals(value)) {
+			return;
 		}
-		newTranslations.forEach(this::storeTranslation);
+		if (!supportsParentValues()) {
+			removeParents(key);
+			removeChildren(key);
+		}
+		recordChange(key);
+		setValue(key, value);
+	}
+	
+	private void remove(String key) {
+		if (getValue(key) != null) {
+			recordChange(key);
+			setValue(key, null);
+		}
+	}
+	
+	private String getValue(String key) {
+		return matrix.get(key, column);
+	}
+	
+	private String getValue(int id) {
+		return matrix.get(id, column);
+	}
+	
+	private void setValue(String key, String value) {
+		matrix.set(key, column, value);
+	}
+	
+	private SortedMap<String,String> childTranslations(String key) {
+		// All child keys start with "key." and '/' is the character directly following '.'
+		return translations.subMap(key + ".", key + "/");
 	}
 	
 	private void removeChildren(String key) {
-		Lists.newLinkedList(translations.keySet()).forEach(k -> {
-			if (ResourceKeys.isChildKeyOf(k, key)) {
-				translations.remove(k);
-			}
-		});
+		Lists.newArrayList(childTranslations(key).keySet()).forEach(this::remove);
 	}
 	
 	private void removeParents(String key) {
-		Lists.newLinkedList(translations.keySet()).forEach(k -> {
-			if (ResourceKeys.isChildKeyOf(key, k)) {
-				translations.remove(k);
+		for (int i = key.lastIndexOf('.'); i > 0; i = key.lastIndexOf('.', i-1)) {
+			remove(key.substring(0, i));
+		}
+	}
+	
+	private void recordChange(String key) {
+		// Only the value before the first change of a key within a batch is of interest
+		if (!changes.containsKey(key)) {
+			changes.put(key, getValue(key));
+		}
+		dirty = true;
+		snapshot = null;
+		version++;
+	}
+	
+	private void queueEvent() {
+		Map<String,String> oldValues = Maps.newHashMap();
+		Map<String,String> newValues = Maps.newHashMap();
+		changes.forEach((key, oldValue) -> {
+			String newValue = getValue(key);
+			if (oldValue != null) {
+				oldValues.put(key, oldValue);
+			}
+			if (newValue != null) {
+				newValues.put(key, newValue);
 			}
 		});
+		Map<String,String> renamedKeys = Maps.newHashMap();
+		renames.forEach((newKey, oldKey) -> {
+			if (!oldKey.equals(newKey)) {
+				renamedKeys.put(oldKey, newKey);
+			}
+		});
+		changes.clear();
+		renames.clear();
+		ResourceEvent event = new ResourceEvent(this, oldValues, newValues, renamedKeys);
+		if (!event.getKeys().isEmpty() || !renamedKeys.isEmpty()) {
+			pendingEvents.add(event);
+		}
 	}
 	
-	private void notifyListeners() {
-		listeners.forEach(l -> l.resourceChanged(new ResourceEvent(this)));
+	private void dispatchEvents() {
+		// Events are queued in the order of the changes, and only one thread at a time delivers them. 
+		// Check the queue again after releasing the flag, as another thread may have queued an event 
+		// while this thread was still dispatching.
+		while (!pendingEvents.isEmpty() && dispatching.compareAndSet(false, true)) {
+			try {
+				ResourceEvent event;
+				while ((event = pendingEvents.poll()) != null) {
+					ResourceEvent e = event;
+					listeners.forEach(l -> l.resourceChanged(e));
+				}
+			} finally {
+				dispatching.set(false);
+			}
+		}
 	}
 	
 	private void checkKey(String key) {
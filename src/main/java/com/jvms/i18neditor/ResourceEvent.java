@@ -1,20 +1,48 @@
 package com.jvms.i18neditor;
 
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+
 /**
  * An event wrapper for a {@link Resource}.
  * 
+ * <p>The event describes the changes made to the translations of the resource. Each changed key is 
+ * either added, removed or changed, and the values before and after the change can be retrieved 
+ * via {@link #getOldValue(String)} and {@link #getNewValue(String)}. When keys have been renamed, 
+ * the old keys are reported as removed and the new keys as added, in addition to the mapping 
+ * returned by {@link #getRenamedKeys()}.</p>
+ * 
  * @author Jacob van Mourik
  */
 public class ResourceEvent {
 	private final Resource resource;
+	private final Map<String,String> oldValues;
+	private final Map<String,String> newValues;
+	private final Map<String,String> renamedKeys;
+	private final Set<String> keys;
 	
 	/**
-	 * Creates an event object for a {@link Resource}.
+	 * Creates an event object for a {@link Resource} describing the changes made.
 	 * 
 	 * @param 	resource the resource.
+	 * @param 	oldValues the values of the changed translations before the change, by key.
+	 * @param 	newValues the values of the changed translations after the change, by key.
+	 * @param 	renamedKeys the new keys of the renamed translations, by old key.
 	 */
-	public ResourceEvent(Resource resource) {
+	public ResourceEvent(Resource resource, Map<String,String> oldValues, Map<String,String> newValues, 
+			Map<String,String> renamedKeys) {
 		this.resource = resource;
+		this.oldValues = ImmutableMap.copyOf(oldValues);
+		this.newValues = ImmutableMap.copyOf(newValues);
+		this.renamedKeys = ImmutableMap.copyOf(renamedKeys);
+		this.keys = Sets.union(oldValues.keySet(), newValues.keySet()).stream()
+				.filter(key -> !Objects.equals(oldValues.get(key), newValues.get(key)))
+				.collect(ImmutableSet.toImmutableSet());
 	}
 	
 	/**
@@ -25,4 +53,72 @@ public class ResourceEvent {
 	public Resource getResource() {
 		return resource;
 	}
+	
+	/**
+	 * Gets the keys of the translations which have been changed, 
+	 * this includes keys which have been added or removed.
+	 * 
+	 * @return 	the changed keys.
+	 */
+	public Set<String> getKeys() {
+		return keys;
+	}
+	
+	/**
+	 * Gets the keys of the translations which have been added.
+	 * 
+	 * @return 	the added keys.
+	 */
+	public Set<String> getAddedKeys() {
+		return Sets.difference(newValues.keySet(), oldValues.keySet()).immutableCopy();
+	}
+	
+	/**
+	 * Gets the keys of the translations which have been removed.
+	 * 
+	 * @return 	the removed keys.
+	 */
+	public Set<String> getRemovedKeys() {
+		return Sets.difference(oldValues.keySet(), newValues.keySet()).immutableCopy();
+	}
+	
+	/**
+	 * Gets the keys of the existing translations of which the value has been changed.
+	 * 
+	 * @return 	the changed keys.
+	 */
+	public Set<String> getChangedKeys() {
+		return Sets.intersection(oldValues.keySet(), newValues.keySet()).stream()
+				.filter(keys::contains)
+				.collect(ImmutableSet.toImmutableSet());
+	}
+	
+	/**
+	 * Gets the new keys of the translations which have been renamed, by old key.
+	 * 
+	 * @return 	the renamed keys.
+	 */
+	public Map<String,String> getRenamedKeys() {
+		return renamedKeys;
+	}
+	
+	/**
+	 * Gets the value of a translation before the change.
+	 * 
+	 * @param 	key the key of the translation.
+	 * @return 	the old value or {@code null} if the translation did not exist.
+	 */
+	public String getOldValue(String key) {
+		return oldValues.get(key);
+	}
+	
+	/**
+	 * Gets the value of a translation after the change.
+	 * 
+	 * @param 	key the key of the translation.
+	 * @return 	the new value or {@code null} if the translation has been removed.
+	 */
+	public String getNewValue(String key) {
+		return newValues.get(key);
+	}
 }
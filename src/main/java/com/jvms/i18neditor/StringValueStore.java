@@ -0,0 +1,63 @@
+package com.jvms.i18neditor;
+
+import java.util.Arrays;
+
+/**
+ * A value store keeping each value as a {@link String}.
+ * 
+ * <p>Values are kept in an array in which the handle of a value is its index plus one.
+ * The slots of removed values are not reused, instead the store reports itself as fragmented 
+ * when more than half of its slots are no longer in use.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+class StringValueStore implements ValueStore {
+	private final static int MIN_REMOVED_COUNT = 1 << 16;
+	private volatile String[] values = new String[16];
+	private int size;
+	private int removedCount;
+	private long stringSize;
+	
+	@Override
+	public long put(String value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size*2);
+		}
+		int slot = size++;
+		values[slot] = value;
+		stringSize += ValueStore.estimateStringSize(value.length());
+		return slot+1;
+	}
+	
+	@Override
+	public String get(long handle) {
+		return values[(int) handle - 1];
+	}
+	
+	@Override
+	public void remove(long handle) {
+		stringSize -= ValueStore.estimateStringSize(get(handle).length());
+		removedCount++;
+	}
+	
+	@Override
+	public int getValueCount() {
+		return size - removedCount;
+	}
+	
+	@Override
+	public long getStringSize() {
+		return stringSize;
+	}
+	
+	@Override
+	public long getAllocatedSize() {
+		// The strings in use and the references to all slots, removed strings are left to the garbage collector
+		return stringSize + ValueStore.align(16 + 4L * values.length);
+	}
+	
+	@Override
+	public boolean isFragmented() {
+		return removedCount > MIN_REMOVED_COUNT && removedCount*2 > size;
+	}
+}
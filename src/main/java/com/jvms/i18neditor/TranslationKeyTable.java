@@ -0,0 +1,124 @@
+package com.jvms.i18neditor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A table of translation keys which can be shared by multiple resources.
+ *
+ * <p>Each key is stored only once and is given a dense integer id, which resources
+ * use to store their values by. Ids are looked up by hash, while a second index keeps 
+ * the keys in sorted order, which allows resources to provide sorted views of their 
+ * translations without having to keep their own copy of the keys.</p>
+ *
+ * <p>Ids are never reused, a key keeps its id even when no resource has a value for it anymore.
+ * The sorted index only contains the keys which are in use, see {@link #retain(int)}, so keys which have
+ * been renamed or removed do not slow down the sorted views.
+ * The table is safe for use by multiple threads, so resources sharing a table can be loaded concurrently.
+ * Adding a key and changing whether it is used are synchronized, looking up an id or key does not take the lock.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class TranslationKeyTable {
+	private final Map<String,Integer> ids = Maps.newConcurrentMap();
+	private final ConcurrentSkipListMap<String,Integer> sortedIds = new ConcurrentSkipListMap<>();
+	private volatile String[] keys = new String[16];
+	private volatile int size;
+	private int[] useCounts = new int[16];
+
+	/**
+	 * Gets the id of the given key, adding the key to the table if it does not exist yet.
+	 *
+	 * @param 	key the key.
+	 * @return	the id of the key.
+	 */
+	public int intern(String key) {
+		Integer id = ids.get(key);
+		if (id != null) {
+			return id;
+		}
+		synchronized (this) {
+			id = ids.get(key);
+			if (id == null) {
+				id = size;
+				if (id == keys.length) {
+					keys = Arrays.copyOf(keys, id * 2);
+					useCounts = Arrays.copyOf(useCounts, id * 2);
+				}
+				keys[id] = key;
+				size = id + 1;
+				ids.put(key, id);
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * Gets the id of the given key.
+	 *
+	 * @param 	key the key.
+	 * @return	the id of the key or {@code -1} if the key is not part of the table.
+	 */
+	public int getId(String key) {
+		Integer id = ids.get(key);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Gets the key with the given id.
+	 *
+	 * @param 	id the id of the key.
+	 * @return	the key.
+	 */
+	public String getKey(int id) {
+		return keys[id];
+	}
+
+	/**
+	 * Gets the number of keys in the table.
+	 * This is also the upper bound (exclusive) of the ids in the table.
+	 *
+	 * @return	the number of keys.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Marks the key with the given id as being used once more, for example by a value of a resource.
+	 * A key is added to the sorted index when it becomes used.
+	 *
+	 * @param 	id the id of the key.
+	 */
+	synchronized void retain(int id) {
+		if (useCounts[id]++ == 0) {
+			sortedIds.put(keys[id], id);
+		}
+	}
+
+	/**
+	 * Marks the key with the given id as being used once less, see {@link #retain(int)}.
+	 * A key is removed from the sorted index when it is no longer used, but keeps its id.
+	 *
+	 * @param 	id the id of the key.
+	 */
+	synchronized void release(int id) {
+		if (--useCounts[id] == 0) {
+			sortedIds.remove(keys[id]);
+		}
+	}
+
+	/**
+	 * Gets an unmodifiable live view of the ids of all keys in use, sorted by key.
+	 *
+	 * @return	the ids by key.
+	 */
+	public SortedMap<String,Integer> getIds() {
+		return Collections.unmodifiableSortedMap(sortedIds);
+	}
+}
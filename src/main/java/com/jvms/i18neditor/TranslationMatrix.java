@@ -0,0 +1,521 @@
+package com.jvms.i18neditor;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ForwardingSortedMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * A matrix storing the translations of multiple resources, with one row per translation key
+ * and one column per resource.
+ *
+ * <p>Rows are indexed by the ids of the {@link TranslationKeyTable} of the matrix, which is told which keys have
+ * a value in any column, so the sorted index of the key table only contains keys in use. Each column is a persistent
+ * trie of the rows, so a {@link #snapshot(int) snapshot} of a column can be taken in constant time and shares its
+ * structure with the column. Handles of empty values are marked, so whether a value is non empty is known from
+ * its column alone. Columns can be added to the coverage of the matrix, for each row the matrix keeps the number
+ * of covered columns having a non empty value and a key is complete when all covered columns have a value for it.</p>
+ *
+ * <p>The values themselves are kept in a value store, the columns only contain handles to them. The {@link ValueStorage}
+ * of the matrix determines how the values are stored, which can be changed at any time. Stores only append values,
+ * so the handles of a snapshot stay valid. When a store contains too many removed values, the live values are copied 
+ * to a new store, while existing snapshots keep referring to the old store.</p>
+ *
+ * <p>Changes are synchronized, so the columns of a matrix can be filled concurrently. Reads do not take the lock,
+ * instead each change publishes an immutable view of the matrix, made up of snapshots of its columns and counts,
+ * from which all reads are served. A read therefore never waits for a change and always sees the changes which have
+ * been completed before it. Use {@link #setColumn(int, int[], String[])} to set many values at once, which publishes
+ * a single view instead of one per value. Snapshots can be read by any thread without locking.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public class TranslationMatrix {
+	private final static long EMPTY = Long.MIN_VALUE;
+	private final TranslationKeyTable keyTable;
+	private PersistentColumn[] columns = new PersistentColumn[0];
+	private int[] valueCounts = new int[0];
+	private final PersistentColumn filledCounts = new PersistentColumn();
+	private final BitSet coverage = new BitSet();
+	private ValueStorage storage;
+	private ValueStore store;
+	private volatile View view;
+
+	/**
+	 * Creates a new matrix with a new key table.
+	 */
+	public TranslationMatrix() {
+		this(new TranslationKeyTable());
+	}
+
+	/**
+	 * Creates a new matrix using the given key table.
+	 *
+	 * @param 	keyTable the key table.
+	 */
+	public TranslationMatrix(TranslationKeyTable keyTable) {
+		this(keyTable, ValueStorage.Strings);
+	}
+
+	/**
+	 * Creates a new matrix using the given key table and value storage.
+	 *
+	 * @param 	keyTable the key table.
+	 * @param 	storage the value storage.
+	 */
+	public TranslationMatrix(TranslationKeyTable keyTable, ValueStorage storage) {
+		this.keyTable = keyTable;
+		this.storage = storage;
+		this.store = storage.createStore();
+		publish();
+	}
+
+	/**
+	 * Gets the key table of the matrix, which contains the keys of all rows.
+	 *
+	 * @return 	the key table.
+	 */
+	public TranslationKeyTable getKeyTable() {
+		return keyTable;
+	}
+
+	/**
+	 * Adds a new empty column to the matrix.
+	 *
+	 * @return 	the index of the new column.
+	 */
+	public synchronized int addColumn() {
+		int column = columns.length;
+		columns = Arrays.copyOf(columns, column+1);
+		columns[column] = new PersistentColumn();
+		valueCounts = Arrays.copyOf(valueCounts, column+1);
+		publish();
+		return column;
+	}
+
+	/**
+	 * Gets the value storage of the matrix.
+	 *
+	 * @return 	the value storage.
+	 */
+	public ValueStorage getValueStorage() {
+		return view.memoryReport.getStorage();
+	}
+
+	/**
+	 * Sets the value storage of the matrix, copying all values to the new storage.
+	 *
+	 * @param 	storage the value storage.
+	 */
+	public synchronized void setValueStorage(ValueStorage storage) {
+		if (this.storage != storage) {
+			this.storage = storage;
+			moveValues(storage.createStore());
+			publish();
+		}
+	}
+
+	/**
+	 * Creates a report of the memory used by the values of the matrix.
+	 *
+	 * @return 	the memory report.
+	 */
+	public MemoryReport getMemoryReport() {
+		return view.memoryReport;
+	}
+
+	/**
+	 * Gets the number of columns of the matrix.
+	 *
+	 * @return 	the number of columns.
+	 */
+	public int getColumnCount() {
+		return view.columns.length;
+	}
+
+	/**
+	 * Gets a value from the matrix.
+	 *
+	 * @param 	row the row, which is the id of the key.
+	 * @param 	column the column.
+	 * @return 	the value or {@code null} if there is no value.
+	 */
+	public String get(int row, int column) {
+		View current = view;
+		return row < 0 ? null : getValue(current.store, current.columns[column].get(row));
+	}
+
+	/**
+	 * Gets a value from the matrix.
+	 *
+	 * @param 	key the key of the row.
+	 * @param 	column the column.
+	 * @return 	the value or {@code null} if there is no value.
+	 */
+	public String get(String key, int column) {
+		return get(keyTable.getId(key), column);
+	}
+
+	/**
+	 * Gets all values of a row.
+	 *
+	 * @param 	key the key of the row.
+	 * @return 	a copy of the values of the row by column, values may be {@code null}.
+	 */
+	public String[] getRow(String key) {
+		View current = view;
+		int row = keyTable.getId(key);
+		String[] result = new String[current.columns.length];
+		if (row >= 0) {
+			for (int column = 0; column < result.length; column++) {
+				result[column] = getValue(current.store, current.columns[column].get(row));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Sets a value in the matrix, adding the key to the key table when needed.
+	 *
+	 * @param 	key the key of the row.
+	 * @param 	column the column.
+	 * @param 	value the value or {@code null} to remove the value.
+	 */
+	public void set(String key, int column, String value) {
+		int row = value == null ? keyTable.getId(key) : keyTable.intern(key);
+		if (row >= 0) {
+			set(row, column, value);
+		}
+	}
+
+	/**
+	 * Sets a value in the matrix.
+	 *
+	 * @param 	row the row, which is the id of the key.
+	 * @param 	column the column.
+	 * @param 	value the value or {@code null} to remove the value.
+	 */
+	public synchronized void set(int row, int column, String value) {
+		setValue(row, column, value);
+		publish();
+	}
+
+	/**
+	 * Replaces all values of a column by the given values.
+	 *
+	 * @param 	column the column.
+	 * @param 	rows the rows of the values, which are the ids of their keys.
+	 * @param 	values the values, in the same order as the rows.
+	 */
+	public synchronized void setColumn(int column, int[] rows, String[] values) {
+		clearValues(column);
+		for (int i = 0; i < rows.length; i++) {
+			setValue(rows[i], column, values[i]);
+		}
+		publish();
+	}
+
+	/**
+	 * Removes all values of a column.
+	 *
+	 * @param 	column the column.
+	 */
+	public synchronized void clearColumn(int column) {
+		clearValues(column);
+		publish();
+	}
+
+	/**
+	 * Takes a snapshot of the values of a column, sorted by key.
+	 *
+	 * <p>The snapshot is taken in constant time and is isolated from later changes to the matrix. 
+	 * Values are only read from the underlying store when they are accessed. Looking up a key and getting
+	 * the size of the snapshot do not depend on the number of keys, the keys of the snapshot are only 
+	 * sorted when it is iterated for the first time.</p>
+	 *
+	 * @param 	column the column.
+	 * @return 	an unmodifiable map of the values by key.
+	 */
+	public SortedMap<String,String> snapshot(int column) {
+		View current = view;
+		return new ColumnSnapshot(keyTable, current.columns[column], current.store, current.valueCounts[column]);
+	}
+
+	/**
+	 * Gets the number of values of a column.
+	 *
+	 * @param 	column the column.
+	 * @return 	the number of values.
+	 */
+	public int getValueCount(int column) {
+		return view.valueCounts[column];
+	}
+
+	/**
+	 * Gets the number of non empty values of a column.
+	 *
+	 * @param 	column the column.
+	 * @return 	the number of non empty values.
+	 */
+	public int getFilledCount(int column) {
+		int[] result = new int[1];
+		view.columns[column].forEach((row, handle) -> {
+			if (handle > 0) {
+				result[0]++;
+			}
+		});
+		return result[0];
+	}
+
+	/**
+	 * Adds a column to the coverage of the matrix.
+	 *
+	 * @param 	column the column.
+	 */
+	public synchronized void addCoverage(int column) {
+		if (!coverage.get(column)) {
+			coverage.set(column);
+			updateFilledCounts(column, 1);
+			publish();
+		}
+	}
+
+	/**
+	 * Removes a column from the coverage of the matrix.
+	 *
+	 * @param 	column the column.
+	 */
+	public synchronized void removeCoverage(int column) {
+		if (coverage.get(column)) {
+			coverage.clear(column);
+			updateFilledCounts(column, -1);
+			publish();
+		}
+	}
+
+	/**
+	 * Checks whether all covered columns have a non empty value for the given key.
+	 * A key for which none of the covered columns has a value is considered to be complete.
+	 *
+	 * @param 	key the key to check.
+	 * @return 	whether the key is complete.
+	 */
+	public boolean isComplete(String key) {
+		return view.isComplete(keyTable.getId(key));
+	}
+
+	/**
+	 * Checks whether any of the covered columns has a non empty value for the given key.
+	 *
+	 * @param 	key the key to check.
+	 * @return 	whether there is a non empty value.
+	 */
+	public boolean isFilled(String key) {
+		int row = keyTable.getId(key);
+		return row >= 0 && view.filledCounts.get(row) > 0;
+	}
+
+	/**
+	 * Gets the covered columns missing a non empty value for the given key.
+	 *
+	 * @param 	key the key.
+	 * @return 	the missing columns, or an empty set if the key is complete.
+	 */
+	public BitSet getMissingColumns(String key) {
+		View current = view;
+		int row = keyTable.getId(key);
+		BitSet result = new BitSet();
+		if (!current.isComplete(row)) {
+			BitSet coverage = current.coverage;
+			for (int column = coverage.nextSetBit(0); column >= 0; column = coverage.nextSetBit(column+1)) {
+				if (current.columns[column].get(row) <= 0) {
+					result.set(column);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets all keys for which one or more covered columns are missing a non empty value.
+	 *
+	 * @return 	the incomplete keys.
+	 */
+	public Set<String> getIncompleteKeys() {
+		View current = view;
+		// Keys without a value in any covered column are complete, so only the rows of covered columns are checked
+		BitSet rows = new BitSet();
+		BitSet coverage = current.coverage;
+		for (int column = coverage.nextSetBit(0); column >= 0; column = coverage.nextSetBit(column+1)) {
+			current.columns[column].forEach((row, handle) -> rows.set(row));
+		}
+		Set<String> result = Sets.newHashSet();
+		for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row+1)) {
+			if (!current.isComplete(row)) {
+				result.add(keyTable.getKey(row));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * An immutable view of the matrix, which is published after each change.
+	 */
+	private final static class View {
+		private final PersistentColumn.Snapshot[] columns;
+		private final int[] valueCounts;
+		private final PersistentColumn.Snapshot filledCounts;
+		private final BitSet coverage;
+		private final int coverageCount;
+		private final ValueStore store;
+		private final MemoryReport memoryReport;
+
+		private View(PersistentColumn.Snapshot[] columns, int[] valueCounts, PersistentColumn.Snapshot filledCounts,
+				BitSet coverage, ValueStore store, MemoryReport memoryReport) {
+			this.columns = columns;
+			this.valueCounts = valueCounts;
+			this.filledCounts = filledCounts;
+			this.coverage = coverage;
+			this.coverageCount = coverage.cardinality();
+			this.store = store;
+			this.memoryReport = memoryReport;
+		}
+
+		private boolean isComplete(int row) {
+			if (row < 0 || filledCounts.get(row) == coverageCount) {
+				return true;
+			}
+			for (int column = coverage.nextSetBit(0); column >= 0; column = coverage.nextSetBit(column+1)) {
+				if (columns[column].get(row) != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A snapshot of a column, of which the keys are sorted when first needed.
+	 *
+	 * <p>Only the rows of the column are sorted, instead of filtering the keys of the whole key table,
+	 * so a snapshot of a column with few values is cheap to iterate in a matrix with many keys.</p>
+	 */
+	private final static class ColumnSnapshot extends ForwardingSortedMap<String,String> {
+		private final TranslationKeyTable keyTable;
+		private final PersistentColumn.Snapshot column;
+		private final ValueStore store;
+		private final int size;
+		private final Supplier<SortedMap<String,String>> sorted;
+
+		private ColumnSnapshot(TranslationKeyTable keyTable, PersistentColumn.Snapshot column, ValueStore store, int size) {
+			this.keyTable = keyTable;
+			this.column = column;
+			this.store = store;
+			this.size = size;
+			this.sorted = Suppliers.memoize(() -> {
+				SortedMap<String,Long> handles = Maps.newTreeMap();
+				column.forEach((row, handle) -> handles.put(keyTable.getKey(row), handle));
+				return Collections.unmodifiableSortedMap(Maps.transformValues(handles, handle -> getValue(store, handle)));
+			});
+		}
+
+		@Override
+		protected SortedMap<String,String> delegate() {
+			return sorted.get();
+		}
+
+		@Override
+		public String get(Object key) {
+			int row = key instanceof String ? keyTable.getId((String) key) : -1;
+			return row < 0 ? null : getValue(store, column.get(row));
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return size == 0;
+		}
+	}
+
+	private static String getValue(ValueStore store, long handle) {
+		if (handle == 0) {
+			return null;
+		}
+		return handle == EMPTY ? "" : store.get(handle & ~EMPTY);
+	}
+
+	private void setValue(int row, int column, String value) {
+		long existing = columns[column].get(row);
+		if (existing != 0) {
+			store.remove(existing & ~EMPTY);
+		}
+		long handle = 0;
+		if (value != null) {
+			handle = store.put(value) | (value.isEmpty() ? EMPTY : 0);
+		}
+		columns[column].set(row, handle);
+		if (existing == 0 && handle != 0) {
+			valueCounts[column]++;
+			keyTable.retain(row);
+		} else if (existing != 0 && handle == 0) {
+			valueCounts[column]--;
+			keyTable.release(row);
+		}
+		boolean wasFilled = existing > 0;
+		boolean isFilled = handle > 0;
+		if (wasFilled != isFilled && coverage.get(column)) {
+			filledCounts.set(row, filledCounts.get(row) + (isFilled ? 1 : -1));
+		}
+		if (store.isFragmented()) {
+			moveValues(storage.createStore());
+		}
+	}
+
+	private void clearValues(int column) {
+		List<Integer> rows = Lists.newArrayList();
+		columns[column].forEach((row, handle) -> rows.add(row));
+		rows.forEach(row -> setValue(row, column, null));
+	}
+
+	private void updateFilledCounts(int column, int delta) {
+		columns[column].forEach((row, handle) -> {
+			if (handle > 0) {
+				filledCounts.set(row, filledCounts.get(row) + delta);
+			}
+		});
+	}
+
+	private void moveValues(ValueStore target) {
+		for (PersistentColumn column : columns) {
+			column.replaceAll(handle -> target.put(store.get(handle & ~EMPTY)) | (handle & EMPTY));
+		}
+		store = target;
+	}
+
+	private void publish() {
+		// Taking the snapshots makes later changes copy the nodes they modify, so the view is never changed
+		PersistentColumn.Snapshot[] snapshots = new PersistentColumn.Snapshot[columns.length];
+		for (int column = 0; column < columns.length; column++) {
+			snapshots[column] = columns[column].snapshot();
+		}
+		view = new View(snapshots, valueCounts.clone(), filledCounts.snapshot(), (BitSet) coverage.clone(), store,
+				new MemoryReport(storage, store.getValueCount(), store.getStringSize(), store.getAllocatedSize()));
+	}
+}
@@ -0,0 +1,130 @@
+package com.jvms.i18neditor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A value store keeping values as UTF-8 encoded bytes in large shared chunks.
+ * 
+ * <p>Each value is written to the end of the current chunk, prefixed by its length as a variable 
+ * length integer. The handle of a value is made up of the index of its chunk plus one in the upper 32 bits 
+ * and its offset within the chunk in the lower 32 bits. Chunks are either on-heap byte arrays or direct 
+ * buffers outside of the Java heap. Strings are only created when a value is read.</p>
+ * 
+ * <p>Space of removed values is not reused, instead the store reports itself as fragmented when
+ * more than half of its space is no longer in use, after which the owner should copy the remaining
+ * values to a new store.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+class Utf8ValueStore implements ValueStore {
+	private final static int CHUNK_SIZE = 1 << 20;
+	private final boolean direct;
+	private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+	private ByteBuffer current;
+	private int valueCount;
+	private long usedSize;
+	private long removedSize;
+	private long allocatedSize;
+	private long stringSize;
+	
+	public Utf8ValueStore(boolean direct) {
+		this.direct = direct;
+	}
+	
+	@Override
+	public long put(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int size = varIntSize(bytes.length) + bytes.length;
+		if (current == null || current.remaining() < size) {
+			int capacity = Math.max(CHUNK_SIZE, size);
+			current = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+			ByteBuffer[] newChunks = Arrays.copyOf(chunks, chunks.length+1);
+			newChunks[newChunks.length-1] = current;
+			chunks = newChunks;
+			allocatedSize += capacity;
+		}
+		int offset = current.position();
+		putVarInt(current, bytes.length);
+		current.put(bytes);
+		valueCount++;
+		usedSize += size;
+		stringSize += ValueStore.estimateStringSize(value.length());
+		return ((long) chunks.length << 32) | offset;
+	}
+	
+	@Override
+	public String get(long handle) {
+		ByteBuffer chunk = chunks[(int) (handle >>> 32) - 1];
+		int offset = (int) handle;
+		int length = getVarInt(chunk, offset);
+		offset += varIntSize(length);
+		if (chunk.hasArray()) {
+			return new String(chunk.array(), chunk.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+		}
+		// Only use absolute reads, as the position of the chunk may be changed by a concurrent write
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = chunk.get(offset + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	@Override
+	public void remove(long handle) {
+		String value = get(handle);
+		int length = getVarInt(chunks[(int) (handle >>> 32) - 1], (int) handle);
+		valueCount--;
+		removedSize += varIntSize(length) + length;
+		stringSize -= ValueStore.estimateStringSize(value.length());
+	}
+	
+	@Override
+	public int getValueCount() {
+		return valueCount;
+	}
+	
+	@Override
+	public long getStringSize() {
+		return stringSize;
+	}
+	
+	@Override
+	public long getAllocatedSize() {
+		return allocatedSize;
+	}
+	
+	@Override
+	public boolean isFragmented() {
+		return removedSize > CHUNK_SIZE && removedSize*2 > usedSize;
+	}
+	
+	private static int varIntSize(int value) {
+		int size = 1;
+		while ((value >>>= 7) != 0) {
+			size++;
+		}
+		return size;
+	}
+	
+	private static void putVarInt(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+	
+	private static int getVarInt(ByteBuffer buffer, int offset) {
+		int result = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get(offset++);
+			result |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return result;
+	}
+}
@@ -0,0 +1,29 @@
+package com.jvms.i18neditor;
+
+/**
+ * An enum describing how translation values are stored in memory.
+ * 
+ * <ul>
+ * <li>{@link #Strings} stores each value as a {@link String}.</li>
+ * <li>{@link #Compact} stores values as UTF-8 bytes in large on-heap chunks.</li>
+ * <li>{@link #OffHeap} stores values as UTF-8 bytes in large direct buffers outside of the Java heap.</li>
+ * </ul>
+ * 
+ * @author Jacob van Mourik
+ */
+public enum ValueStorage {
+	Strings, 
+	Compact, 
+	OffHeap;
+	
+	ValueStore createStore() {
+		switch (this) {
+			case Compact:
+				return new Utf8ValueStore(false);
+			case OffHeap:
+				return new Utf8ValueStore(true);
+			default:
+				return new StringValueStore();
+		}
+	}
+}
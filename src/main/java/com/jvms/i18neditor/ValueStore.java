@@ -0,0 +1,82 @@
+package com.jvms.i18neditor;
+
+/**
+ * A store of translation values, in which each value is referenced by a handle.
+ * 
+ * <p>A handle is never {@code 0}, so {@code 0} can be used to denote the absence of a value.
+ * Stores only append values, a removed value can still be read by its handle, which allows snapshots 
+ * to keep reading from a store while it's being modified. Modifications are not thread safe, they are 
+ * guarded by the {@link TranslationMatrix} owning the store.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+interface ValueStore {
+	
+	/**
+	 * Adds a value to the store.
+	 * 
+	 * @param 	value the value.
+	 * @return 	the handle of the value.
+	 */
+	long put(String value);
+	
+	/**
+	 * Gets a value from the store.
+	 * 
+	 * @param 	handle the handle of the value.
+	 * @return 	the value.
+	 */
+	String get(long handle);
+	
+	/**
+	 * Marks a value of the store as removed.
+	 * 
+	 * @param 	handle the handle of the value.
+	 */
+	void remove(long handle);
+	
+	/**
+	 * Gets the number of values in the store.
+	 * 
+	 * @return 	the number of values.
+	 */
+	int getValueCount();
+	
+	/**
+	 * Gets the estimated number of bytes the values would take when stored as {@link String}s.
+	 * 
+	 * @return 	the number of bytes.
+	 */
+	long getStringSize();
+	
+	/**
+	 * Gets the number of bytes allocated by the store.
+	 * 
+	 * @return 	the number of bytes.
+	 */
+	long getAllocatedSize();
+	
+	/**
+	 * Checks whether so much of the allocated space is no longer in use that
+	 * the values should be copied to a new store.
+	 * 
+	 * @return 	whether the store should be compacted.
+	 */
+	boolean isFragmented();
+	
+	/**
+	 * Estimates the number of bytes a {@link String} of the given length takes on the heap,
+	 * assuming a 64-bit JVM with compressed references, where a {@link String} consists of 
+	 * an object of 24 bytes and a {@code char[]} of 16 bytes plus 2 bytes per character.
+	 * 
+	 * @param 	length the length of the string.
+	 * @return 	the estimated number of bytes.
+	 */
+	static long estimateStringSize(int length) {
+		return 24 + align(16 + 2L * length);
+	}
+	
+	static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+}
@@ -12,6 +12,9 @@ import javax.swing.JPanel;
 
 import com.google.common.collect.Lists;
 import com.jvms.i18neditor.FileStructure;
+import com.jvms.i18neditor.ValueStorage;
+import com.jvms.i18neditor.io.ChecksumAlgorithm;
+import com.jvms.i18neditor.io.WriteDurability;
 import com.jvms.i18neditor.util.MessageBundle;
 
 /**
@@ -28,6 +31,18 @@ public abstract class AbstractSettingsPane extends JPanel {
 			.sorted()
 			.collect(Collectors.toList());
 	
+	protected final List<ComboBoxValueStorage> valueStorageComboBoxItems = Lists.newArrayList(ValueStorage.values()).stream()
+			.map(val -> new ComboBoxValueStorage(val, MessageBundle.get("settings.valuestorage." + val.name().toLowerCase())))
+			.collect(Collectors.toList());
+	
+	protected final List<ComboBoxWriteDurability> writeDurabilityComboBoxItems = Lists.newArrayList(WriteDurability.values()).stream()
+			.map(val -> new ComboBoxWriteDurability(val, MessageBundle.get("settings.durability." + val.name().toLowerCase())))
+			.collect(Collectors.toList());
+	
+	protected final List<ComboBoxChecksumAlgorithm> checksumAlgorithmComboBoxItems = Lists.newArrayList(ChecksumAlgorithm.values()).stream()
+			.map(val -> new ComboBoxChecksumAlgorithm(val, MessageBundle.get("settings.checksum." + val.name().toLowerCase())))
+			.collect(Collectors.toList());
+	
 	protected final List<ComboBoxLocale> localeComboBoxItems = Editor.SUPPORTED_LANGUAGES.stream()
 			.map(val -> new ComboBoxLocale(val))
 			.sorted()
@@ -78,6 +93,60 @@ public abstract class AbstractSettingsPane extends JPanel {
 		}
 	}
 	
+	protected class ComboBoxValueStorage {
+		private ValueStorage storage;
+		private String label;
+		
+		public ComboBoxValueStorage(ValueStorage storage, String label) {
+			this.storage = storage;
+			this.label = label;
+		}
+		
+		public ValueStorage getStorage() {
+			return storage;
+		}
+		
+		public String toString() {
+			return label;
+		}
+	}
+	
+	protected class ComboBoxWriteDurability {
+		private WriteDurability durability;
+		private String label;
+		
+		public ComboBoxWriteDurability(WriteDurability durability, String label) {
+			this.durability = durability;
+			this.label = label;
+		}
+		
+		public WriteDurability getDurability() {
+			return durability;
+		}
+		
+		public String toString() {
+			return label;
+		}
+	}
+	
+	protected class ComboBoxChecksumAlgorithm {
+		private ChecksumAlgorithm algorithm;
+		private String label;
+		
+		public ComboBoxChecksumAlgorithm(ChecksumAlgorithm algorithm, String label) {
+			this.algorithm = algorithm;
+			this.label = label;
+		}
+		
+		public ChecksumAlgorithm getAlgorithm() {
+			return algorithm;
+		}
+		
+		public String toString() {
+			return label;
+		}
+	}
+	
 	protected class ComboBoxLocale implements Comparable<ComboBoxLocale> {
 		private Locale locale;
 		
@@ -20,16 +20,25 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.swing.BorderFactory;
@@ -43,6 +52,8 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.border.CompoundBorder;
 import javax.swing.event.TreeSelectionEvent;
@@ -58,12 +69,23 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.jvms.i18neditor.FileStructure;
+import com.jvms.i18neditor.MemoryReport;
 import com.jvms.i18neditor.Resource;
 import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationMatrix;
+import com.jvms.i18neditor.ValueStorage;
+import com.jvms.i18neditor.io.ChecksumAlgorithm;
 import com.jvms.i18neditor.io.ChecksumException;
+import com.jvms.i18neditor.io.DirectoryWatcher;
+import com.jvms.i18neditor.io.WriteDurability;
 import com.jvms.i18neditor.swing.JFileDrop;
 import com.jvms.i18neditor.swing.JScrollablePanel;
 import com.jvms.i18neditor.swing.util.Dialogs;
@@ -74,7 +96,9 @@ import com.jvms.i18neditor.util.GithubRepoUtil.GithubRepoReleaseData;
 import com.jvms.i18neditor.util.Images;
 import com.jvms.i18neditor.util.Locales;
 import com.jvms.i18neditor.util.MessageBundle;
+import com.jvms.i18neditor.util.ResourceCache;
 import com.jvms.i18neditor.util.ResourceKeys;
+import com.jvms.i18neditor.util.ResourceOptions;
 import com.jvms.i18neditor.util.Resources;
 
 /**
@@ -85,12 +109,15 @@ import com.jvms.i18neditor.util.Resources;
 public class Editor extends JFrame {
 	private final static long serialVersionUID = 1113029729495390082L;
 	private final static Logger log = LoggerFactory.getLogger(Editor.class);
+	private final static long WATCH_DELAY = 300;
+	private final static long WATCH_MAX_DELAY = 3000;
 	
 	public final static String TITLE = "i18n-editor";
 	public final static String VERSION = "2.0.0-beta.1";
 	public final static String GITHUB_USER = "jcbvm";
 	public final static String GITHUB_PROJECT = "i18n-editor";
 	public final static String PROJECT_FILE = ".i18n-editor-metadata";
+	public final static String CACHE_FILE = ".i18n-editor-cache";
 	public final static String SETTINGS_FILE = ".i18n-editor";
 	public final static String SETTINGS_DIR = System.getProperty("user.home");
 	
@@ -104,6 +131,13 @@ public class Editor extends JFrame {
 	private EditorProject project;
 	private EditorSettings settings = new EditorSettings();
 	private ExecutorService executor = Executors.newFixedThreadPool(2);
+	private ExecutorService resourceExecutor = Executors.newFixedThreadPool(
+			Math.max(2, Runtime.getRuntime().availableProcessors()),
+			new ThreadFactoryBuilder().setNameFormat("resource-io-%d").setDaemon(true).build());
+	private ImportProjectTask importTask;
+	private DirectoryWatcher watcher;
+	// The last write of each resource which has not been completed yet, only accessed on the EDT
+	private final Map<Resource,Future<?>> pendingWrites = Maps.newHashMap();
 	private boolean dirty;
 	
 	private EditorMenuBar editorMenu;
@@ -144,11 +178,13 @@ public class Editor extends JFrame {
 			
 			if (project.getResourceFileStructure() == FileStructure.Flat) {
 				Resource resource = Resources.create(type, dir, 
-						project.getResourceFileDefinition(), FileStructure.Flat, Optional.empty());
+						project.getResourceFileDefinition(), FileStructure.Flat, Optional.empty(), project.getMatrix(), 
+						getResourceOptions());
 				setupResource(resource);
 				project.addResource(resource);
 			}
 			translationTree.setModel(new TranslationTreeModel());
+			watchProject();
 			
 			updateHistory();
 			updateUI();
@@ -162,70 +198,18 @@ public class Editor extends JFrame {
 	}
 	
 	public void importProject(Path dir, boolean showEmptyProjectError) {
-		try {
-			Preconditions.checkArgument(Files.isDirectory(dir));
-			
-			if (!closeCurrentProject()) {
-				return;
-			}
-			
-			clearUI();
-			project = new EditorProject(dir);
-			restoreProjectState(project);
-			
-			Optional<ResourceType> type = Optional.ofNullable(project.getResourceType());
-			List<Resource> resourceList = Resources.get(dir, 
-					project.getResourceFileDefinition(), project.getResourceFileStructure(), type);
-			Map<String,String> keys = Maps.newTreeMap();
-			
-			if (resourceList.isEmpty()) {
-				project = null;
-				if (showEmptyProjectError) {
-					executor.execute(() -> showError(MessageBundle.get("resources.import.empty", dir)));
-				}
-			} else {
-				project.setResourceType(type.orElseGet(() -> {
-					ResourceType t = resourceList.get(0).getType();
-					resourceList.removeIf(r -> r.getType() != t);
-					return t;
-				}));
-				resourceList.forEach(resource -> {
-					try {
-						Resources.load(resource);
-						setupResource(resource);
-						project.addResource(resource);
-					} catch (IOException e) {
-						log.error("Error importing resource file " + resource.getPath(), e);
-						showError(MessageBundle.get("resources.import.error.single", resource.getPath()));
-					}
-				});
-				project.getResources().forEach(r -> keys.putAll(r.getTranslations()));
-			}
-			translationTree.setModel(new TranslationTreeModel(Lists.newArrayList(keys.keySet())));
-			
-			updateTreeNodeStatuses();
-			updateHistory();
-			updateUI();
-			requestFocusInFirstResourceField();
-		} catch (IOException e) {
-			log.error("Error importing resource files", e);
-			showError(MessageBundle.get("resources.import.error.multiple"));
-		}
+		importProject(dir, showEmptyProjectError, null);
 	}
 	
-	public boolean saveProject() {
-		boolean error = false;
-		if (project != null) {
-			for (Resource resource : project.getResources()) {
-				if (!saveResource(resource)) {
-					error = true;
-				}
-			}
-		}
-		if (dirty) {
-			setDirty(error);			
+	public void saveProject() {
+		if (project == null) {
+			return;
 		}
-		return !error;
+		Map<Resource,Future<?>> results = writeResources(getDirtyResources());
+		executor.execute(() -> {
+			awaitAll(results.values());
+			SwingUtilities.invokeLater(() -> completeSave(results, false));
+		});
 	}
 	
 	public void reloadProject() {
@@ -278,7 +262,8 @@ public class Editor extends JFrame {
 		}
 		try {
 			Resource resource = Resources.create(project.getResourceType(), project.getPath(), 
-					project.getResourceFileDefinition(), project.getResourceFileStructure(), Optional.of(locale));
+					project.getResourceFileDefinition(), project.getResourceFileStructure(), Optional.of(locale), 
+					project.getMatrix(), getResourceOptions());
 			addResource(resource);
 			requestFocusInFirstResourceField();
 			return true;
@@ -303,7 +288,7 @@ public class Editor extends JFrame {
 		if (project != null) {
 			project.getResources().forEach(resource -> resource.storeTranslation(key, ""));				
 		}
-		translationTree.addNodeByKey(key);			
+		updateTreeNodeStatuses(translationTree.addNodeByKey(key));
 		requestFocusInFirstResourceField();
 		return true;
 	}
@@ -331,6 +316,7 @@ public class Editor extends JFrame {
 			project.getResources().forEach(resource -> resource.renameTranslation(key, newKey));
 		}
 		translationTree.renameNodeByKey(key, newKey);
+		updateTreeNodeStatuses(translationTree.getNodeByKey(newKey));
 		requestFocusInFirstResourceField();
 		return true;
 	}
@@ -350,6 +336,7 @@ public class Editor extends JFrame {
 			project.getResources().forEach(resource -> resource.duplicateTranslation(key, newKey));
 		}
 		translationTree.duplicateNodeByKey(key, newKey);
+		updateTreeNodeStatuses(translationTree.getNodeByKey(newKey));
 		requestFocusInFirstResourceField();
 		return true;
 	}
@@ -359,6 +346,7 @@ public class Editor extends JFrame {
 		updateUI();
 		if (project != null) {
 			project.addResource(resource);
+			watchResource(resource);
 			updateTreeNodeStatuses();
 		}
 	}
@@ -523,6 +511,19 @@ public class Editor extends JFrame {
 				"MIT Licensed");
 	}
 	
+	public void showMemoryReportDialog() {
+		if (project == null) {
+			return;
+		}
+		MemoryReport report = project.getMatrix().getMemoryReport();
+		double mb = 1024d * 1024d;
+		Dialogs.showHtmlDialog(this, MessageBundle.get("dialogs.memory.title"), 
+				MessageBundle.get("dialogs.memory.text", 
+						MessageBundle.get("settings.valuestorage." + report.getStorage().name().toLowerCase()),
+						report.getValueCount(), report.getStringSize() / mb, report.getAllocatedSize() / mb, 
+						report.getSavedSize() / mb));
+	}
+	
 	public void showVersionDialog(boolean newVersionOnly) {
 		executor.execute(() -> {
 			GithubRepoReleaseData data;
@@ -553,11 +554,15 @@ public class Editor extends JFrame {
 					MessageBundle.get("dialogs.save.title"), 
 					JOptionPane.YES_NO_CANCEL_OPTION);
 			if (confirm == JOptionPane.YES_OPTION) {
-				result = saveProject();
+				result = saveProjectAndWait();
 			} else {
 				result = confirm != JOptionPane.CANCEL_OPTION;
 			}
 		}
+		if (result && !pendingWrites.isEmpty()) {
+			// Changes which have been saved before must still reach the disk
+			result = awaitPendingWrites();
+		}
 		if (result && project != null) {
 			storeProjectState();
 		}
@@ -598,33 +603,16 @@ public class Editor extends JFrame {
     	pack();
     	setVisible(true);
     	
+		updateHistory();
+		
 		List<String> dirs = settings.getHistory();
     	if (!dirs.isEmpty()) {
     		String lastDir = dirs.get(dirs.size()-1);
     		Path path = Paths.get(lastDir);
     		if (Files.exists(path)) {
-    			importProject(path, false);
+    			importProject(path, false, this::restoreTreeState);
     		}
     	}
-    	
-    	if (project == null) {
-    		updateHistory();
-    	}
-		if (project != null && project.hasResources()) {
-			// Restore last expanded nodes
-			List<String> expandedKeys = settings.getLastExpandedNodes();
-			List<TranslationTreeNode> expandedNodes = expandedKeys.stream()
-					.map(translationTree::getNodeByKey)
-					.filter(n -> n != null)
-					.collect(Collectors.toList());
-			translationTree.expand(expandedNodes);
-			// Restore last selected node
-			String selectedKey = settings.getLastSelectedNode();
-			TranslationTreeNode selectedNode = translationTree.getNodeByKey(selectedKey);
-			if (selectedNode != null) {
-				translationTree.setSelectionNode(selectedNode);
-			}
-		}
 		
 		if (settings.isCheckVersionOnStartup()) {
 			showVersionDialog(true);			
@@ -698,10 +686,7 @@ public class Editor extends JFrame {
 		while (!Strings.isNullOrEmpty(key)) {
 			TranslationTreeNode node = translationTree.getNodeByKey(key);
 			if (node != null && !node.isRoot() && node.isLeaf()) {
-				boolean hasValue = project.getResources().stream().anyMatch(r -> {
-					return !Strings.isNullOrEmpty(r.getTranslation(node.getKey()));
-				});
-				if (hasValue) {
+				if (project.getMatrix().isFilled(node.getKey())) {
 					return Dialogs.showConfirmDialog(this, 
 							MessageBundle.get("dialogs.translation.overwrite.title"), 
 							MessageBundle.get("dialogs.translation.overwrite.text", node.getKey()),
@@ -713,6 +698,62 @@ public class Editor extends JFrame {
 		return true;
 	}
 	
+	private void importProject(Path dir, boolean showEmptyProjectError, Runnable callback) {
+		Preconditions.checkArgument(Files.isDirectory(dir));
+		
+		if (!closeCurrentProject()) {
+			return;
+		}
+		if (importTask != null) {
+			importTask.cancel(true);
+		}
+		
+		project = null;
+		watchProject();
+		clearUI();
+		
+		EditorProject newProject = new EditorProject(dir);
+		restoreProjectState(newProject);
+		
+		// Resource files are read and parsed in the background, the project is only
+		// attached to the editor once the import has been completed
+		importTask = new ImportProjectTask(newProject, showEmptyProjectError, callback);
+		importTask.execute();
+	}
+	
+	private void restoreTreeState() {
+		if (project == null || !project.hasResources()) {
+			return;
+		}
+		// Restore last expanded nodes
+		List<String> expandedKeys = settings.getLastExpandedNodes();
+		List<TranslationTreeNode> expandedNodes = expandedKeys.stream()
+				.map(translationTree::getNodeByKey)
+				.filter(n -> n != null)
+				.collect(Collectors.toList());
+		translationTree.expand(expandedNodes);
+		// Restore last selected node
+		String selectedKey = settings.getLastSelectedNode();
+		TranslationTreeNode selectedNode = translationTree.getNodeByKey(selectedKey);
+		if (selectedNode != null) {
+			translationTree.setSelectionNode(selectedNode);
+		}
+	}
+	
+	private List<String> mergeKeys(List<Resource> resources) {
+		// The keys of each resource are sorted, so merge them in order and skip duplicates
+		List<String> result = Lists.newArrayList();
+		Iterator<String> keys = Iterators.mergeSorted(resources.stream()
+				.map(r -> r.getTranslationKeys().iterator())
+				.collect(Collectors.toList()), Ordering.natural());
+		keys.forEachRemaining(key -> {
+			if (result.isEmpty() || !result.get(result.size()-1).equals(key)) {
+				result.add(key);
+			}
+		});
+		return result;
+	}
+	
 	private void requestFocusInFirstResourceField() {
 		resourceFields.stream().findFirst().ifPresent(f -> {
 			f.requestFocusInWindow();
@@ -873,7 +914,21 @@ public class Editor extends JFrame {
 	}
 	
 	private void setupResource(Resource resource) {
-		resource.addListener(e -> setDirty(true));
+		resource.addListener(e -> {
+			// Resources may be modified by background tasks, so always update the UI on the event dispatch thread
+			Runnable update = () -> {
+				// Changes reloaded from disk do not mark the resource as dirty
+				if (!dirty && e.getResource().isDirty()) {
+					setDirty(true);
+				}
+				updateTreeNodeStatuses(e.getKeys());
+			};
+			if (SwingUtilities.isEventDispatchThread()) {
+				update.run();
+			} else {
+				SwingUtilities.invokeLater(update);
+			}
+		});
 		ResourceField field = new ResourceField(resource);
 		field.addKeyListener(new ResourceFieldKeyListener());
 		resourceFields.add(field);
@@ -908,51 +963,289 @@ public class Editor extends JFrame {
 	
 	private void updateTreeNodeStatuses() {
 		if (project == null) return;
-		Set<String> keys = project.getResources().stream()
-				.flatMap(r -> r.getTranslations().keySet().stream())
-				.filter(key -> project.getResources().stream().anyMatch(r -> !r.hasTranslation(key)))
-				.collect(Collectors.toSet());
-		translationTree.updateNodes(keys);
+		TranslationMatrix matrix = project.getMatrix();
+		translationTree.updateNodes(key -> !matrix.isComplete(key));
 	}
 	
-	private void updateTreeNodeStatus(String key) {
+	private void updateTreeNodeStatuses(TranslationTreeNode node) {
+		if (project == null || node == null) return;
+		TranslationMatrix matrix = project.getMatrix();
+		translationTree.updateNodes(node, key -> !matrix.isComplete(key));
+	}
+	
+	private void updateTreeNodeStatuses(Set<String> keys) {
 		if (project == null) return;
-		boolean hasError = project.getResources().stream().anyMatch(r -> !r.hasTranslation(key));
-		translationTree.updateNode(key, hasError);
+		TranslationMatrix matrix = project.getMatrix();
+		keys.forEach(key -> translationTree.updateNode(key, !matrix.isComplete(key)));
 	}
 	
-	private boolean saveResource(Resource resource) {
-		if (project != null) {
+	private void watchProject() {
+		if (watcher != null) {
+			try {
+				watcher.close();
+			} catch (IOException e) {
+				log.error("Error closing project directory watcher", e);
+			}
+			watcher = null;
+		}
+		if (project == null) {
+			return;
+		}
+		try {
+			watcher = new DirectoryWatcher(WATCH_DELAY, WATCH_MAX_DELAY, this::reloadResources);
+			watcher.register(project.getPath());
+		} catch (IOException e) {
+			log.error("Unable to watch project directory " + project.getPath(), e);
+			return;
+		}
+		project.getResources().forEach(this::watchResource);
+	}
+	
+	private void watchResource(Resource resource) {
+		if (watcher == null) {
+			return;
+		}
+		try {
+			watcher.register(resource.getPath().getParent());
+		} catch (IOException e) {
+			log.error("Unable to watch resource directory " + resource.getPath().getParent(), e);
+		}
+	}
+	
+	private void reloadResources(Set<Path> paths) {
+		SwingUtilities.invokeLater(() -> {
+			if (project == null) {
+				return;
+			}
+			EditorProject currentProject = project;
+			ResourceOptions options = getResourceOptions();
+			// A directory is reported when changes have been lost, in which case all of its resources are checked
+			Map<Resource,Future<Set<String>>> results = Maps.newLinkedHashMap();
+			project.getResources().stream()
+					.filter(r -> paths.contains(r.getPath()) || paths.contains(r.getPath().getParent()))
+					.filter(r -> Files.isRegularFile(r.getPath()))
+					.forEach(r -> {
+						// Reload after a pending write of the resource, which may have caused the change itself
+						Future<?> previous = pendingWrites.get(r);
+						results.put(r, resourceExecutor.submit(() -> {
+							if (previous != null) {
+								awaitAll(Collections.singleton(previous));
+							}
+							return Resources.reload(r, options);
+						}));
+					});
+			if (results.isEmpty()) {
+				return;
+			}
+			executor.execute(() -> {
+				Set<String> keys = Sets.newHashSet();
+				results.forEach((resource, result) -> {
+					try {
+						keys.addAll(result.get());
+					} catch (ExecutionException e) {
+						log.error("Error reloading resource file " + resource.getPath(), e.getCause());
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+				SwingUtilities.invokeLater(() -> {
+					if (project == currentProject && !keys.isEmpty()) {
+						updateTranslationTree(keys);
+					}
+				});
+			});
+		});
+	}
+	
+	private void updateTranslationTree(Set<String> keys) {
+		TranslationMatrix matrix = project.getMatrix();
+		TranslationTreeNode selectedNode = translationTree.getSelectionNode();
+		String selectedKey = selectedNode == null ? null : selectedNode.getKey();
+		// Only add and remove the nodes of the changed keys, so the expanded nodes and the selection are kept
+		keys.stream().sorted().forEach(key -> {
+			boolean hasValue = Arrays.stream(matrix.getRow(key)).anyMatch(Objects::nonNull);
+			TranslationTreeNode node = translationTree.getNodeByKey(key);
+			if (hasValue && node == null) {
+				translationTree.insertNodeByKey(key);
+			} else if (!hasValue && node != null && node.isLeaf()) {
+				translationTree.removeNodeByKey(key);
+				// Remove parent nodes which are left without children or values
+				String parentKey = ResourceKeys.withoutLastPart(key);
+				while (!parentKey.isEmpty()) {
+					TranslationTreeNode parent = translationTree.getNodeByKey(parentKey);
+					if (parent == null || !parent.isLeaf() || Arrays.stream(matrix.getRow(parentKey)).anyMatch(Objects::nonNull)) {
+						break;
+					}
+					translationTree.removeNodeByKey(parentKey);
+					parentKey = ResourceKeys.withoutLastPart(parentKey);
+				}
+			}
+		});
+		updateTreeNodeStatuses(keys);
+		if (selectedKey == null) {
+			return;
+		}
+		TranslationTreeNode node = translationTree.getNodeByKey(selectedKey);
+		if (node == null) {
+			TranslationTreeModel model = (TranslationTreeModel) translationTree.getModel();
+			translationTree.setSelectionNode(model.getClosestParentNodeByKey(selectedKey));
+		} else if (keys.contains(selectedKey)) {
+			String[] row = matrix.getRow(selectedKey);
+			resourceFields.forEach(f -> {
+				String value = row[f.getResource().getColumn()];
+				if (!Objects.equals(Strings.nullToEmpty(value), f.getText())) {
+					f.setValue(value);
+				}
+			});
+		}
+	}
+	
+	private boolean saveProjectAndWait() {
+		if (project == null) {
+			return true;
+		}
+		writeResources(getDirtyResources());
+		return awaitPendingWrites();
+	}
+	
+	private boolean awaitPendingWrites() {
+		// Wait for the writes of earlier saves as well, not only for the resources which are dirty now
+		Map<Resource,Future<?>> results = Maps.newLinkedHashMap(pendingWrites);
+		awaitAll(results.values());
+		return completeSave(results, true);
+	}
+	
+	private List<Resource> getDirtyResources() {
+		return project.getResources().stream()
+				.filter(Resource::isDirty)
+				.collect(Collectors.toList());
+	}
+	
+	private ResourceOptions getResourceOptions() {
+		return new ResourceOptions(settings.getChecksumAlgorithm(), settings.getWriteDurability(), 
+				ResourceOptions.DEFAULT_MAPPED_LOAD_THRESHOLD, settings.isKeepPropertiesComments());
+	}
+	
+	private Map<Resource,Future<?>> writeResources(List<Resource> resources) {
+		boolean prettyPrinting = !project.isMinifyResources();
+		boolean flattenKeys = project.isFlattenJSON();
+		ResourceOptions options = getResourceOptions();
+		Map<Resource,Future<?>> results = Maps.newLinkedHashMap();
+		resources.forEach(resource -> {
+			// Take the version before the snapshot, so a change made in between keeps the resource dirty
+			long version = resource.getVersion();
+			// Write a snapshot, so the resource can still be edited while it's being written
+			SortedMap<String,String> translations = resource.snapshot();
+			// Writes of the same resource are done in order, so an older snapshot never replaces a newer one 
+			// and each write verifies the checksum of the file written before
+			Future<?> previous = pendingWrites.get(resource);
+			Future<?> result = resourceExecutor.submit(() -> {
+				if (previous != null) {
+					awaitAll(Collections.singleton(previous));
+				}
+				Resources.write(resource, translations, prettyPrinting, flattenKeys, options);
+				// The resource stays dirty until it has been written, so a failed write never lets a reload 
+				// replace the values which were being saved
+				resource.markSaved(version);
+				return null;
+			});
+			pendingWrites.put(resource, result);
+			results.put(resource, result);
+		});
+		return results;
+	}
+	
+	private void awaitAll(Collection<Future<?>> results) {
+		results.forEach(result -> {
+			try {
+				result.get();
+			} catch (ExecutionException e) {
+				// Handled when completing the save
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+	}
+	
+	private boolean completeSave(Map<Resource,Future<?>> results, boolean wait) {
+		boolean error = false;
+		List<Resource> conflicts = Lists.newArrayList();
+		for (Map.Entry<Resource,Future<?>> entry : results.entrySet()) {
+			Resource resource = entry.getKey();
+			// A write followed by a newer write of the same resource is completed by the newer one, 
+			// which contains the same changes and reports the same errors
+			if (!pendingWrites.remove(resource, entry.getValue())) {
+				continue;
+			}
 			try {
-				Resources.write(resource, !project.isMinifyResources(), project.isFlattenJSON());
-			} catch (ChecksumException e) {
-				boolean confirm = Dialogs.showConfirmDialog(this, 
-						MessageBundle.get("dialogs.save.checksum.title"), 
-						MessageBundle.get("dialogs.save.checksum.text", resource.getPath()),
-						JOptionPane.WARNING_MESSAGE);
-				if (confirm) {
-					resource.setChecksum(null);
-					saveResource(resource);
+				entry.getValue().get();
+			} catch (ExecutionException e) {
+				resource.setDirty(true);
+				if (e.getCause() instanceof ChecksumException) {
+					conflicts.add(resource);
 				} else {
-					return false;
+					log.error("Error saving resource file " + resource.getPath(), e.getCause());
+					showError(MessageBundle.get("resources.write.error.single", resource.getPath().toString()));
+					error = true;
 				}
-			} catch (IOException e) {
-				log.error("Error saving resource file " + resource.getPath(), e);
-				showError(MessageBundle.get("resources.write.error.single", resource.getPath().toString()));
-				return false;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				resource.setDirty(true);
+				error = true;
 			}
 		}
-		return true;
+		if (!conflicts.isEmpty()) {
+			// Ask once for all files which have been modified by another program
+			String message;
+			if (conflicts.size() == 1) {
+				message = MessageBundle.get("dialogs.save.checksum.text", conflicts.get(0).getPath());
+			} else {
+				message = MessageBundle.get("dialogs.save.checksum.text.multiple", conflicts.stream()
+						.map(r -> "\"" + r.getPath() + "\"")
+						.collect(Collectors.joining("<br>")));
+			}
+			boolean confirm = Dialogs.showConfirmDialog(this, 
+					MessageBundle.get("dialogs.save.checksum.title"), message, JOptionPane.WARNING_MESSAGE);
+			if (confirm && project != null) {
+				conflicts.forEach(r -> r.setChecksum(null));
+				Map<Resource,Future<?>> retries = writeResources(conflicts);
+				if (wait) {
+					awaitAll(retries.values());
+					error = !completeSave(retries, true) || error;
+				} else {
+					executor.execute(() -> {
+						awaitAll(retries.values());
+						SwingUtilities.invokeLater(() -> completeSave(retries, false));
+					});
+				}
+			} else {
+				error = true;
+			}
+		}
+		if (project != null) {
+			setDirty(project.getResources().stream().anyMatch(Resource::isDirty));
+		}
+		return !error;
 	}
 	
 	private void storeProjectState() {
 		ExtendedProperties props = new ExtendedProperties();
 		props.setProperty("minify_resources", project.isMinifyResources());
 		props.setProperty("flatten_json", project.isFlattenJSON());
+		props.setProperty("value_storage", project.getValueStorage());
 		props.setProperty("resource_type", project.getResourceType().toString());
 		props.setProperty("resource_definition", project.getResourceFileDefinition());
 		props.setProperty("resource_structure", project.getResourceFileStructure());
 		props.store(Paths.get(project.getPath().toString(), PROJECT_FILE));
+		storeResourceCache(project);
+	}
+	
+	private void storeResourceCache(EditorProject project) {
+		try {
+			ResourceCache.write(Paths.get(project.getPath().toString(), CACHE_FILE), project.getPath(), project.getResources());
+		} catch (IOException e) {
+			log.error("Unable to store resource cache to " + project.getPath(), e);
+		}
 	}
 	
 	private void restoreProjectState(EditorProject project) {
@@ -962,6 +1255,7 @@ public class Editor extends JFrame {
 			props.load(Paths.get(project.getPath().toString(), PROJECT_FILE));
 			project.setMinifyResources(props.getBooleanProperty("minify_resources", settings.isMinifyResources()));
 			project.setFlattenJSON(props.getBooleanProperty("flatten_json", settings.isFlattenJSON()));
+			project.setValueStorage(props.getEnumProperty("value_storage", ValueStorage.class, ValueStorage.Strings));
 			project.setResourceType(props.getEnumProperty("resource_type", ResourceType.class));
 			String resourceName = props.getProperty("resource_name"); // for backwards compatibility
 			if (Strings.isNullOrEmpty(resourceName)) {
@@ -995,6 +1289,9 @@ public class Editor extends JFrame {
 		props.setProperty("default_input_height", settings.getDefaultInputHeight());
 		props.setProperty("key_field_enabled", settings.isKeyFieldEnabled());
 		props.setProperty("double_click_tree_toggling", settings.isDoubleClickTreeToggling());
+		props.setProperty("checksum_algorithm", settings.getChecksumAlgorithm());
+		props.setProperty("write_durability", settings.getWriteDurability());
+		props.setProperty("keep_properties_comments", settings.isKeepPropertiesComments());
 		if (settings.getEditorLanguage() != null) {
 			props.setProperty("editor_language", settings.getEditorLanguage());
 		}
@@ -1026,6 +1323,9 @@ public class Editor extends JFrame {
 		settings.setDefaultInputHeight(props.getIntegerProperty("default_input_height", 5));
 		settings.setKeyFieldEnabled(props.getBooleanProperty("key_field_enabled", true));
 		settings.setDoubleClickTreeToggling(props.getBooleanProperty("double_click_tree_toggling", false));
+		settings.setChecksumAlgorithm(props.getEnumProperty("checksum_algorithm", ChecksumAlgorithm.class, ChecksumAlgorithm.Murmur3));
+		settings.setWriteDurability(props.getEnumProperty("write_durability", WriteDurability.class, WriteDurability.Atomic));
+		settings.setKeepPropertiesComments(props.getBooleanProperty("keep_properties_comments", false));
 		settings.setMinifyResources(props.getBooleanProperty("minify_resources", false));
 		settings.setFlattenJSON(props.getBooleanProperty("flatten_json", false));
 		settings.setHistory(props.getListProperty("history"));
@@ -1036,6 +1336,143 @@ public class Editor extends JFrame {
 		settings.setEditorLanguage(props.getLocaleProperty("editor_language"));
 	}
 	
+	private class ImportProjectTask extends SwingWorker<TranslationTreeModel,Integer> {
+		private final EditorProject newProject;
+		private final boolean showEmptyProjectError;
+		private final Runnable callback;
+		private final ResourceOptions options;
+		private final ImportProgressDialog progressDialog;
+		private final Timer progressDialogTimer;
+		private final List<Resource> failedResources = Collections.synchronizedList(Lists.newArrayList());
+		private final AtomicInteger loadedFiles = new AtomicInteger();
+		private final AtomicInteger parsedFiles = new AtomicInteger();
+		private final AtomicLong loadedBytes = new AtomicLong();
+		private final AtomicInteger loadedKeys = new AtomicInteger();
+		private volatile int totalFiles;
+		
+		public ImportProjectTask(EditorProject newProject, boolean showEmptyProjectError, Runnable callback) {
+			this.newProject = newProject;
+			this.showEmptyProjectError = showEmptyProjectError;
+			this.callback = callback;
+			this.options = getResourceOptions();
+			this.progressDialog = new ImportProgressDialog(Editor.this, () -> cancel(true));
+			// Only show the progress dialog when the import takes a noticeable amount of time
+			this.progressDialogTimer = new Timer(300, e -> progressDialog.setVisible(true));
+			this.progressDialogTimer.setRepeats(false);
+			this.progressDialogTimer.start();
+		}
+		
+		@Override
+		protected TranslationTreeModel doInBackground() throws Exception {
+			Optional<ResourceType> type = Optional.ofNullable(newProject.getResourceType());
+			List<Resource> resourceList = Resources.get(newProject.getPath(),
+					newProject.getResourceFileDefinition(), newProject.getResourceFileStructure(), type, 
+					newProject.getMatrix());
+			if (resourceList.isEmpty()) {
+				return null;
+			}
+			newProject.setResourceType(type.orElseGet(() -> {
+				ResourceType t = resourceList.get(0).getType();
+				resourceList.removeIf(r -> r.getType() != t);
+				return t;
+			}));
+			totalFiles = resourceList.size();
+			
+			// Resource files which have not been changed since they were cached do not need to be parsed
+			Set<Resource> cachedResources = Sets.newHashSet(ResourceCache.read(
+					Paths.get(newProject.getPath().toString(), CACHE_FILE), newProject.getPath(), resourceList));
+			cachedResources.forEach(resource -> {
+				loadedBytes.addAndGet(resource.getFileStamp().getSize());
+				loadedKeys.addAndGet(resource.getTranslationCount());
+				loadedFiles.incrementAndGet();
+			});
+			publish(loadedFiles.get());
+			
+			// Resource files are independent of each other, so parse them concurrently
+			List<Future<?>> results = resourceList.stream()
+					.map(resource -> cachedResources.contains(resource) ? Futures.immediateFuture(null) : resourceExecutor.submit(() -> {
+						Resources.load(resource, options);
+						loadedBytes.addAndGet(Files.size(resource.getPath()));
+						loadedKeys.addAndGet(resource.getTranslationCount());
+						publish(loadedFiles.incrementAndGet());
+						parsedFiles.incrementAndGet();
+						return null;
+					}))
+					.collect(Collectors.toList());
+			try {
+				for (int i = 0; i < resourceList.size(); i++) {
+					Resource resource = resourceList.get(i);
+					try {
+						results.get(i).get();
+						newProject.addResource(resource);
+					} catch (ExecutionException e) {
+						log.error("Error importing resource file " + resource.getPath(), e.getCause());
+						failedResources.add(resource);
+					}
+				}
+			} finally {
+				if (isCancelled()) {
+					results.forEach(f -> f.cancel(true));
+				}
+			}
+			return new TranslationTreeModel(mergeKeys(newProject.getResources()));
+		}
+		
+		@Override
+		protected void process(List<Integer> chunks) {
+			progressDialog.setProgress(loadedFiles.get(), totalFiles, loadedBytes.get(), loadedKeys.get());
+		}
+		
+		@Override
+		protected void done() {
+			progressDialogTimer.stop();
+			progressDialog.dispose();
+			if (importTask == this) {
+				importTask = null;
+			}
+			if (isCancelled()) {
+				updateHistory();
+				updateUI();
+				return;
+			}
+			TranslationTreeModel model;
+			try {
+				model = get();
+			} catch (InterruptedException | ExecutionException e) {
+				log.error("Error importing resource files", e);
+				showError(MessageBundle.get("resources.import.error.multiple"));
+				updateHistory();
+				updateUI();
+				return;
+			}
+			failedResources.forEach(resource -> {
+				showError(MessageBundle.get("resources.import.error.single", resource.getPath()));
+			});
+			if (model == null) {
+				if (showEmptyProjectError) {
+					executor.execute(() -> showError(MessageBundle.get("resources.import.empty", newProject.getPath())));
+				}
+				model = new TranslationTreeModel();
+			} else {
+				project = newProject;
+				project.getResources().forEach(Editor.this::setupResource);
+				watchProject();
+				if (parsedFiles.get() > 0) {
+					executor.execute(() -> storeResourceCache(newProject));
+				}
+			}
+			translationTree.setModel(model);
+			
+			updateTreeNodeStatuses();
+			updateHistory();
+			updateUI();
+			requestFocusInFirstResourceField();
+			if (project != null && callback != null) {
+				callback.run();
+			}
+		}
+	}
+	
 	private class TranslationTreeMouseListener extends MouseAdapter {
 		@Override
 		public void mousePressed(MouseEvent e) {
@@ -1075,9 +1512,10 @@ public class Editor extends JFrame {
 				
 				// Update UI values
 				String key = node.getKey();
+				String[] row = project.getMatrix().getRow(key);
 				translationField.setValue(key);
 				resourceFields.forEach(f -> {
-					f.setValue(key);
+					f.setValue(row[f.getResource().getColumn()]);
 					f.setEnabled(node.isEditable() && (node.isLeaf() || f.getResource().supportsParentValues()));
 				});
 				
@@ -1126,7 +1564,6 @@ public class Editor extends JFrame {
 			String key = node.getKey();
 			String value = field.getValue();
 			field.getResource().storeTranslation(key, value);
-			updateTreeNodeStatus(key);
 		}
 	}
 	
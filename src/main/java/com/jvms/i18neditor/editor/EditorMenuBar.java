@@ -195,6 +195,10 @@ public class EditorMenuBar extends JMenuBar {
         viewMenu.setMnemonic(MessageBundle.getMnemonic("menu.view.vk"));
         viewMenu.add(new ExpandTranslationsMenuItem(tree));
         viewMenu.add(new CollapseTranslationsMenuItem(tree));
+        viewMenu.addSeparator();
+        JMenuItem memoryMenuItem = new JMenuItem(MessageBundle.get("menu.view.memory.title"));
+        memoryMenuItem.addActionListener(e -> editor.showMemoryReportDialog());
+        viewMenu.add(memoryMenuItem);
         
         // Settings menu
         settingsMenu = new JMenu(MessageBundle.get("menu.settings.title"));
@@ -3,11 +3,14 @@ package com.jvms.i18neditor.editor;
 import java.nio.file.Path;
 import java.util.List;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.jvms.i18neditor.FileStructure;
 import com.jvms.i18neditor.Resource;
 import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationMatrix;
+import com.jvms.i18neditor.ValueStorage;
 
 /**
  * This class represents an editor project.
@@ -19,6 +22,7 @@ public class EditorProject {
 	private String resourceFileDefinition;
 	private ResourceType resourceType;
 	private List<Resource> resources;
+	private TranslationMatrix matrix;
 	private boolean minifyResources;
 	private boolean flattenJSON;
 	private FileStructure resourceFileStructure;
@@ -26,6 +30,7 @@ public class EditorProject {
 	public EditorProject(Path path) {
 		this.path = path;
 		this.resources = Lists.newLinkedList();
+		this.matrix = new TranslationMatrix();
 	}
 
 	public Path getPath() {
@@ -49,11 +54,27 @@ public class EditorProject {
 	}
 
 	public void setResources(List<Resource> resources) {
-		this.resources = resources;
+		this.resources.forEach(resource -> matrix.removeCoverage(resource.getColumn()));
+		this.resources = Lists.newLinkedList();
+		resources.forEach(this::addResource);
 	}
 	
 	public void addResource(Resource resource) {
+		Preconditions.checkArgument(resource.getMatrix() == matrix, "Resource is not stored in the project matrix.");
 		resources.add(resource);
+		matrix.addCoverage(resource.getColumn());
+	}
+	
+	public TranslationMatrix getMatrix() {
+		return matrix;
+	}
+	
+	public ValueStorage getValueStorage() {
+		return matrix.getValueStorage();
+	}
+	
+	public void setValueStorage(ValueStorage valueStorage) {
+		matrix.setValueStorage(valueStorage);
 	}
 	
 	public boolean hasResources() {
@@ -70,20 +70,50 @@ public class EditorProjectSettingsPane extends AbstractSettingsPane {
 		fieldset1.add(resourceDefinitionPanel, createVerticalGridBagConstraints());
 		fieldset1.add(resourceDefinitionHelpLabel, createVerticalGridBagConstraints());
 		
+		ComboBoxValueStorage currentValueStorageItem = valueStorageComboBoxItems.stream()
+				.filter(item -> item.getStorage() == project.getValueStorage())
+				.findFirst().orElse(null);
+		JPanel valueStoragePanel = new JPanel(new GridLayout(0, 1));
+		JLabel valueStorageLabel = new JLabel(MessageBundle.get("settings.valuestorage.title"));
+		JComboBox valueStorageField = new JComboBox(valueStorageComboBoxItems.toArray());
+		valueStorageField.setSelectedItem(currentValueStorageItem);
+		valueStorageField.addActionListener(e -> {
+			project.setValueStorage(((ComboBoxValueStorage)valueStorageField.getSelectedItem()).getStorage());
+		});
+		valueStoragePanel.add(valueStorageLabel);
+		valueStoragePanel.add(valueStorageField);
+		fieldset1.add(valueStoragePanel, createVerticalGridBagConstraints());
+		
 		ResourceType type = project.getResourceType();
 		if (type == ResourceType.JSON || type == ResourceType.ES6) {
 			JCheckBox minifyBox = new JCheckBox(MessageBundle.get("settings.minify.title"));
 			minifyBox.setSelected(project.isMinifyResources());
-			minifyBox.addChangeListener(e -> project.setMinifyResources(minifyBox.isSelected()));
+			minifyBox.addChangeListener(e -> {
+				if (project.isMinifyResources() != minifyBox.isSelected()) {
+					project.setMinifyResources(minifyBox.isSelected());
+					setResourcesDirty(project);
+				}
+			});
 			fieldset1.add(minifyBox, createVerticalGridBagConstraints());
 			
 			JCheckBox flattenJSONBox = new JCheckBox(MessageBundle.get("settings.flattenjson.title"));
 			flattenJSONBox.setSelected(project.isFlattenJSON());
-			flattenJSONBox.addChangeListener(e -> project.setFlattenJSON(flattenJSONBox.isSelected()));
+			flattenJSONBox.addChangeListener(e -> {
+				if (project.isFlattenJSON() != flattenJSONBox.isSelected()) {
+					project.setFlattenJSON(flattenJSONBox.isSelected());
+					setResourcesDirty(project);
+				}
+			});
 			fieldset1.add(flattenJSONBox, createVerticalGridBagConstraints());
 		}
 		
 		setLayout(new GridBagLayout());
 		add(fieldset1, createVerticalGridBagConstraints());
 	}
+	
+	private void setResourcesDirty(EditorProject project) {
+		// Only dirty resources are written when saving, all files must be rewritten in the new format
+		project.getResources().forEach(resource -> resource.setDirty(true));
+		editor.setDirty(true);
+	}
 }
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Locale;
 
 import com.jvms.i18neditor.FileStructure;
+import com.jvms.i18neditor.io.ChecksumAlgorithm;
+import com.jvms.i18neditor.io.WriteDurability;
 
 /**
  * This class represents the editor settings.
@@ -30,6 +32,33 @@ public class EditorSettings {
 	private String resourceFileDifinition;
 	private Locale editorLanguage;
 	private FileStructure resourceFileStructure;
+	private ChecksumAlgorithm checksumAlgorithm;
+	private WriteDurability writeDurability;
+	private boolean keepPropertiesComments;
+	
+	public ChecksumAlgorithm getChecksumAlgorithm() {
+		return checksumAlgorithm;
+	}
+	
+	public void setChecksumAlgorithm(ChecksumAlgorithm checksumAlgorithm) {
+		this.checksumAlgorithm = checksumAlgorithm;
+	}
+	
+	public WriteDurability getWriteDurability() {
+		return writeDurability;
+	}
+	
+	public void setWriteDurability(WriteDurability writeDurability) {
+		this.writeDurability = writeDurability;
+	}
+	
+	public boolean isKeepPropertiesComments() {
+		return keepPropertiesComments;
+	}
+	
+	public void setKeepPropertiesComments(boolean keepPropertiesComments) {
+		this.keepPropertiesComments = keepPropertiesComments;
+	}
 	
 	public int getWindowPositionX() {
 		return windowPositionX;
@@ -67,6 +67,39 @@ public class EditorSettingsPane extends AbstractSettingsPane {
 		languageListPanel.add(languageListField);
 		fieldset1.add(languageListPanel, createVerticalGridBagConstraints());
 		
+		ComboBoxChecksumAlgorithm currentChecksumItem = checksumAlgorithmComboBoxItems.stream()
+				.filter(item -> item.getAlgorithm() == settings.getChecksumAlgorithm())
+				.findFirst().orElse(null);
+		JPanel checksumPanel = new JPanel(new GridLayout(0, 1));
+		JLabel checksumLabel = new JLabel(MessageBundle.get("settings.checksum.title"));
+		JComboBox checksumField = new JComboBox(checksumAlgorithmComboBoxItems.toArray());
+		checksumField.setSelectedItem(currentChecksumItem);
+		checksumField.addActionListener(e -> {
+			settings.setChecksumAlgorithm(((ComboBoxChecksumAlgorithm)checksumField.getSelectedItem()).getAlgorithm());
+		});
+		checksumPanel.add(checksumLabel);
+		checksumPanel.add(checksumField);
+		fieldset1.add(checksumPanel, createVerticalGridBagConstraints());
+		
+		ComboBoxWriteDurability currentDurabilityItem = writeDurabilityComboBoxItems.stream()
+				.filter(item -> item.getDurability() == settings.getWriteDurability())
+				.findFirst().orElse(null);
+		JPanel durabilityPanel = new JPanel(new GridLayout(0, 1));
+		JLabel durabilityLabel = new JLabel(MessageBundle.get("settings.durability.title"));
+		JComboBox durabilityField = new JComboBox(writeDurabilityComboBoxItems.toArray());
+		durabilityField.setSelectedItem(currentDurabilityItem);
+		durabilityField.addActionListener(e -> {
+			settings.setWriteDurability(((ComboBoxWriteDurability)durabilityField.getSelectedItem()).getDurability());
+		});
+		durabilityPanel.add(durabilityLabel);
+		durabilityPanel.add(durabilityField);
+		fieldset1.add(durabilityPanel, createVerticalGridBagConstraints());
+		
+		JCheckBox commentsBox = new JCheckBox(MessageBundle.get("settings.keepcomments.title"));
+		commentsBox.setSelected(settings.isKeepPropertiesComments());
+		commentsBox.addChangeListener(e -> settings.setKeepPropertiesComments(commentsBox.isSelected()));
+		fieldset1.add(commentsBox, createVerticalGridBagConstraints());
+		
 		// New project settings
 		JPanel fieldset2 = createFieldset(MessageBundle.get("settings.fieldset.newprojects"));
 		
@@ -0,0 +1,66 @@
+package com.jvms.i18neditor.editor;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.UIManager;
+import javax.swing.WindowConstants;
+
+import com.jvms.i18neditor.util.MessageBundle;
+
+/**
+ * This class represents a dialog showing the progress of a project import.
+ *
+ * @author Jacob van Mourik
+ */
+public class ImportProgressDialog extends JDialog {
+	private final static long serialVersionUID = -3094519406187239211L;
+	private final Runnable cancelAction;
+	private JProgressBar progressBar;
+	private JLabel progressLabel;
+
+	public ImportProgressDialog(Frame owner, Runnable cancelAction) {
+		super(owner, MessageBundle.get("dialogs.project.import.progress.title"), false);
+		this.cancelAction = cancelAction;
+		setupUI();
+	}
+
+	public void setProgress(int files, int totalFiles, long bytes, int keys) {
+		progressBar.setIndeterminate(totalFiles == 0);
+		progressBar.setMaximum(totalFiles);
+		progressBar.setValue(files);
+		progressLabel.setText(MessageBundle.get("dialogs.project.import.progress.text",
+				files, totalFiles, bytes / (1024d * 1024d), keys));
+	}
+
+	private void setupUI() {
+		progressBar = new JProgressBar();
+		progressLabel = new JLabel();
+
+		JButton cancelButton = new JButton(UIManager.getString("OptionPane.cancelButtonText"));
+		cancelButton.addActionListener(e -> cancelAction.run());
+
+		JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+		buttonPanel.add(cancelButton);
+
+		JPanel content = new JPanel(new BorderLayout(0, 10));
+		content.setBorder(BorderFactory.createEmptyBorder(15,15,15,15));
+		content.add(progressBar, BorderLayout.NORTH);
+		content.add(progressLabel, BorderLayout.CENTER);
+		content.add(buttonPanel, BorderLayout.SOUTH);
+
+		setContentPane(content);
+		setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+		setResizable(false);
+		setProgress(0, 0, 0, 0);
+		pack();
+		setLocationRelativeTo(getOwner());
+	}
+}
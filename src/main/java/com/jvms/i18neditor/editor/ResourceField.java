@@ -30,8 +30,8 @@ public class ResourceField extends JTextArea implements Comparable<ResourceField
 		return getText().trim();
 	}
 	
-	public void setValue(String key) {
-		setText(resource.getTranslation(key));
+	public void setValue(String value) {
+		setText(value);
 		undoManager.discardAllEdits();
 	}
 	
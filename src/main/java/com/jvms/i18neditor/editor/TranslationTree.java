@@ -8,7 +8,7 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.Enumeration;
 import java.util.List;
-import java.util.Set;
+import java.util.function.Predicate;
 
 import javax.swing.InputMap;
 import javax.swing.JTree;
@@ -55,12 +55,17 @@ public class TranslationTree extends JTree {
 		nodes.forEach(n -> collapsePath(new TreePath(n.getPath())));
 	}
 	
-	public void updateNodes(Set<String> errorKeys) {
+	public void updateNodes(Predicate<String> hasError) {
 		TranslationTreeModel model = (TranslationTreeModel) getModel();
-		Enumeration<TranslationTreeNode> e = model.getEnumeration();
+		updateNodes((TranslationTreeNode) model.getRoot(), hasError);
+	}
+	
+	public void updateNodes(TranslationTreeNode node, Predicate<String> hasError) {
+		TranslationTreeModel model = (TranslationTreeModel) getModel();
+		Enumeration<TranslationTreeNode> e = model.getEnumeration(node);
 		while (e.hasMoreElements()) {
 	    	TranslationTreeNode n = e.nextElement();
-	    	n.setError(errorKeys.contains(n.getKey()));
+	    	n.setError(hasError.test(n.getKey()));
 	        model.nodeChanged(n);
 	    }
 	}
@@ -75,6 +80,12 @@ public class TranslationTree extends JTree {
 	}
 	
 	public TranslationTreeNode addNodeByKey(String key) {
+		TranslationTreeNode node = insertNodeByKey(key);
+		setSelectionNode(node);
+		return node;
+	}
+	
+	public TranslationTreeNode insertNodeByKey(String key) {
 		TranslationTreeModel model = (TranslationTreeModel) getModel();
 		TranslationTreeNode node = model.getNodeByKey(key);
 		if (node == null) {
@@ -86,7 +97,6 @@ public class TranslationTree extends JTree {
 					lastPart.isEmpty() ? Lists.newArrayList() : Lists.newArrayList(lastPart)), parent);
 			node = model.getNodeByKey(key);
 		}
-		setSelectionNode(node);
 		return node;
 	}
 	
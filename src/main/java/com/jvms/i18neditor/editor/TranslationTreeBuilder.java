@@ -0,0 +1,76 @@
+package com.jvms.i18neditor.editor;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.jvms.i18neditor.util.ResourceKeys;
+
+/**
+ * This class provides a single pass builder for a translation tree.
+ *
+ * <p>The builder keeps a stack of the currently open nodes. When the given keys are sorted,
+ * consecutive keys share most of their parts, so each key only closes and opens the nodes
+ * of the parts that differ from the previous key, which makes building the tree linear in
+ * the total number of key parts. Unsorted keys are supported as well, but will cause more
+ * nodes to be closed and reopened.</p>
+ *
+ * @author Jacob van Mourik
+ */
+public final class TranslationTreeBuilder {
+
+	/**
+	 * Creates a new tree with a root node of the given name containing the given keys.
+	 *
+	 * @param 	name the name of the root node.
+	 * @param 	keys the keys, preferably sorted.
+	 * @return 	the root node of the tree.
+	 */
+	public static TranslationTreeNode build(String name, Iterable<String> keys) {
+		TranslationTreeNode root = new TranslationTreeNode(name);
+		addKeys(root, keys);
+		return root;
+	}
+
+	/**
+	 * Adds the given keys as descendants of the given node.
+	 *
+	 * @param 	root the node to add the keys to.
+	 * @param 	keys the keys, preferably sorted.
+	 */
+	public static void addKeys(TranslationTreeNode root, Iterable<String> keys) {
+		List<TranslationTreeNode> nodes = Lists.newArrayList(root);
+		List<Map<String,TranslationTreeNode>> children = Lists.newArrayList(childrenByName(root));
+		for (String key : keys) {
+			String[] parts = ResourceKeys.parts(key);
+			int depth = 0;
+			while (depth < parts.length && depth+1 < nodes.size() && nodes.get(depth+1).getName().equals(parts[depth])) {
+				depth++;
+			}
+			for (int i = nodes.size()-1; i > depth; i--) {
+				nodes.remove(i);
+				children.remove(i);
+			}
+			for (int i = depth; i < parts.length; i++) {
+				Map<String,TranslationTreeNode> siblings = children.get(i);
+				TranslationTreeNode node = siblings.get(parts[i]);
+				if (node == null) {
+					node = new TranslationTreeNode(parts[i]);
+					nodes.get(i).add(node);
+					siblings.put(parts[i], node);
+				}
+				nodes.add(node);
+				children.add(childrenByName(node));
+			}
+		}
+	}
+
+	private static Map<String,TranslationTreeNode> childrenByName(TranslationTreeNode node) {
+		Map<String,TranslationTreeNode> result = Maps.newHashMap();
+		if (!node.isLeaf()) {
+			node.getChildren().forEach(child -> result.put(child.getName(), child));
+		}
+		return result;
+	}
+}
@@ -21,6 +21,7 @@ import com.jvms.i18neditor.util.Images;
 public class TranslationTreeCellRenderer extends DefaultTreeCellRenderer {
 	private final static long serialVersionUID = 3511394180407171920L;
 	private final static ImageIcon ROOT_ICON = Images.loadFromClasspath("images/icon-folder.png");
+	private final static TranslationTreeStatusIcon WARNING_ICON = new TranslationTreeStatusIcon(StatusIconType.Warning);
 	private final Color selectionBackground;
 	
 	public TranslationTreeCellRenderer() {
@@ -49,7 +50,7 @@ public class TranslationTreeCellRenderer extends DefaultTreeCellRenderer {
         l.setForeground(tree.getForeground());
         l.setBackground(tree.getBackground());            	
         if (!node.isRoot() && (node.hasError() || model.hasErrorChildNode(node))) {
-        	l.setIcon(new TranslationTreeStatusIcon(StatusIconType.Warning));
+        	l.setIcon(WARNING_ICON);
         }
         if (node.isRoot()) {
         	l.setIcon(ROOT_ICON);
@@ -2,27 +2,36 @@ package com.jvms.i18neditor.editor;
 
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.MutableTreeNode;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.jvms.i18neditor.util.MessageBundle;
 import com.jvms.i18neditor.util.ResourceKeys;
 
 /**
  * This class represents a model for the translation tree.
  * 
+ * <p>The model keeps an index of all nodes by their key, which is kept up to date
+ * when nodes are inserted into, removed from or renamed by the model. Nodes which are part 
+ * of the model should therefore be renamed using {@link #renameNode(TranslationTreeNode, String)}.</p>
+ * 
  * @author Jacob van Mourik
  */
 public class TranslationTreeModel extends DefaultTreeModel {
 	private final static long serialVersionUID = 3261808274177599488L;
+	private final Map<String,TranslationTreeNode> nodesByKey = Maps.newHashMap();
 	
 	public TranslationTreeModel() {
-		super(new TranslationTreeNode(MessageBundle.get("tree.root.name"), Lists.newArrayList()));
+		this(Lists.newArrayList());
 	}
 	
 	public TranslationTreeModel(List<String> keys) {
-		super(new TranslationTreeNode(MessageBundle.get("tree.root.name"), keys));
+		super(TranslationTreeBuilder.build(MessageBundle.get("tree.root.name"), keys));
+		index((TranslationTreeNode) getRoot());
 	}
 	
 	public Enumeration<TranslationTreeNode> getEnumeration() {
@@ -35,25 +44,11 @@ public class TranslationTreeModel extends DefaultTreeModel {
 	}
 	
 	public TranslationTreeNode getNodeByKey(String key) {
-		Enumeration<TranslationTreeNode> e = getEnumeration();
-	    while (e.hasMoreElements()) {
-	    	TranslationTreeNode n = e.nextElement();
-	        if (n.getKey().equals(key)) {
-	            return n;
-	        }
-	    }
-	    return null;
+		return nodesByKey.get(key);
 	}
 	
 	public boolean hasErrorChildNode(TranslationTreeNode node) {
-		Enumeration<TranslationTreeNode> e = getEnumeration(node);
-    	while (e.hasMoreElements()) {
-    		TranslationTreeNode n = e.nextElement();
-    		if (n.hasError()) {
-    			return true;
-    		}
-    	}
-    	return false;
+		return node.hasError() || node.hasErrorChildNode();
 	}
 	
 	public TranslationTreeNode getClosestParentNodeByKey(String key) {
@@ -75,6 +70,26 @@ public class TranslationTreeModel extends DefaultTreeModel {
 		insertNodeInto(newChild, parent, getNewChildIndex(newChild, parent));
 	}
 	
+	@Override
+	public void insertNodeInto(MutableTreeNode newChild, MutableTreeNode parent, int index) {
+		super.insertNodeInto(newChild, parent, index);
+		index((TranslationTreeNode) newChild);
+	}
+	
+	@Override
+	public void removeNodeFromParent(MutableTreeNode node) {
+		unindex((TranslationTreeNode) node);
+		super.removeNodeFromParent(node);
+	}
+	
+	public void renameNode(TranslationTreeNode node, String name) {
+		// The keys of the node and all of its descendants change
+		unindex(node);
+		node.setName(name);
+		index(node);
+		nodeChanged(node);
+	}
+	
 	public void insertDescendantsInto(TranslationTreeNode source, TranslationTreeNode target) {
 		source.getChildren().forEach(child -> {
 			TranslationTreeNode existing = target.getChild(child.getName());
@@ -98,6 +113,22 @@ public class TranslationTreeModel extends DefaultTreeModel {
 		}
 	}
 	
+	private void index(TranslationTreeNode node) {
+		Enumeration<TranslationTreeNode> e = getEnumeration(node);
+		while (e.hasMoreElements()) {
+			TranslationTreeNode n = e.nextElement();
+			nodesByKey.put(n.getKey(), n);
+		}
+	}
+	
+	private void unindex(TranslationTreeNode node) {
+		Enumeration<TranslationTreeNode> e = getEnumeration(node);
+		while (e.hasMoreElements()) {
+			TranslationTreeNode n = e.nextElement();
+			nodesByKey.remove(n.getKey(), n);
+		}
+	}
+	
 	private int getNewChildIndex(TranslationTreeNode newChild, TranslationTreeNode parent) {
 		int result = 0;
 		for (TranslationTreeNode n : parent.getChildren()) {
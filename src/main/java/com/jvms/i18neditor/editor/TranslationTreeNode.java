@@ -1,62 +1,79 @@
 package com.jvms.i18neditor.editor;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import javax.swing.tree.DefaultMutableTreeNode;
-import javax.swing.tree.TreeNode;
+import javax.swing.tree.MutableTreeNode;
 
-import com.jvms.i18neditor.util.ResourceKeys;
 
 /**
  * This class represents a single node of the translation tree.
  * 
+ * <p>The full key of the node is cached and updated for the node and its descendants 
+ * whenever the name of the node changes or the node is moved to another parent.</p>
+ * 
+ * <p>Each node also keeps count of the number of its descendants having an error, 
+ * this count is updated up the parent chain whenever the error state of a node changes.</p>
+ * 
  * @author Jacob van Mourik
  */
 public class TranslationTreeNode extends DefaultMutableTreeNode {
 	private final static long serialVersionUID = -7372403592538358822L;
 	private String name;
+	private String key = "";
 	private boolean error;
+	private int errorChildCount;
 	
-	public TranslationTreeNode(String name, List<String> keys) {
+	public TranslationTreeNode(String name) {
 		super();
 		this.name = name;
-		ResourceKeys.uniqueRootKeys(keys).forEach(rootKey -> {
-			List<String> subKeys = ResourceKeys.extractChildKeys(keys, rootKey);
-			add(new TranslationTreeNode(rootKey, subKeys));
-		});
+	}
+	
+	public TranslationTreeNode(String name, List<String> keys) {
+		this(name);
+		TranslationTreeBuilder.addKeys(this, keys);
 	}
 	
 	public String getName() {
 		return name;
 	}
 	
+	/**
+	 * Sets the name of the node, which changes the key of the node and its descendants.
+	 * 
+	 * <p>A node which is part of a {@link TranslationTreeModel} should be renamed using 
+	 * {@link TranslationTreeModel#renameNode(TranslationTreeNode, String)}, so the model can update its index.</p>
+	 * 
+	 * @param 	name the name.
+	 */
 	public void setName(String name) {
 		this.name = name;
+		updateKey();
 	}
 	
 	public void setError(boolean error) {
-		this.error = error;
+		if (this.error != error) {
+			this.error = error;
+			updateParentErrorCount(error ? 1 : -1);
+		}
 	}
 	
 	public boolean hasError() {
 		return isEditable() && error;
 	}
 	
+	public boolean hasErrorChildNode() {
+		return errorChildCount > 0;
+	}
+	
 	public boolean isEditable() {
 		return !isRoot();
 	}
 	
 	public String getKey() {
-		List<TreeNode> path = Arrays.asList(getPath());
-		List<String> parts = path.stream()
-				.filter(p -> !((TranslationTreeNode)p).isRoot())
-				.map(p -> p.toString())
-				.collect(Collectors.toList());
-		return ResourceKeys.create(parts);
+		return key;
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -75,11 +92,53 @@ public class TranslationTreeNode extends DefaultMutableTreeNode {
 		return cloneWithChildren(this);
 	}
 	
+	@Override
+	public void setParent(MutableTreeNode newParent) {
+		int errorCount = errorChildCount + (error ? 1 : 0);
+		updateParentErrorCount(-errorCount);
+		super.setParent(newParent);
+		updateParentErrorCount(errorCount);
+		updateKey();
+	}
+	
+	@Override
+	public Object clone() {
+		TranslationTreeNode node = (TranslationTreeNode) super.clone();
+		node.key = "";
+		node.errorChildCount = 0;
+		return node;
+	}
+	
 	@Override
 	public String toString() {
 		return name;
 	}
 	
+	private void updateParentErrorCount(int delta) {
+		if (delta == 0) {
+			return;
+		}
+		TranslationTreeNode parent = (TranslationTreeNode) getParent();
+		while (parent != null) {
+			parent.errorChildCount += delta;
+			parent = (TranslationTreeNode) parent.getParent();
+		}
+	}
+	
+	private void updateKey() {
+		TranslationTreeNode parent = (TranslationTreeNode) getParent();
+		if (parent == null) {
+			key = "";
+		} else {
+			key = parent.key.isEmpty() ? name : parent.key + "." + name;
+		}
+		if (children != null) {
+			for (Object child : children) {
+				((TranslationTreeNode) child).updateKey();
+			}
+		}
+	}
+	
 	private TranslationTreeNode cloneWithChildren(TranslationTreeNode parent) {
 		TranslationTreeNode newParent = (TranslationTreeNode) parent.clone();
 		for (TranslationTreeNode n : parent.getChildren()) {
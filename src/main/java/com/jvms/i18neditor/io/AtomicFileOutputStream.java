@@ -0,0 +1,142 @@
+package com.jvms.i18neditor.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.UUID;
+
+/**
+ * An output stream replacing the contents of a file using the given {@link WriteDurability}.
+ * 
+ * <p>Unless the durability is {@link WriteDurability#Direct}, all content is written to a temporary file 
+ * in the same directory as the target file. Calling {@link #commit()} moves the temporary file over the 
+ * target file. Closing the stream without committing discards the temporary file and leaves the target 
+ * file untouched, so this stream should be used as follows:</p>
+ * 
+ * <pre>
+ * try (AtomicFileOutputStream out = new AtomicFileOutputStream(path, durability)) {
+ *     // write content
+ *     out.commit();
+ * }
+ * </pre>
+ * 
+ * <p>When the target file is a symbolic link, the file it links to is replaced. The permissions of an 
+ * existing target file are copied to the new file where supported.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public class AtomicFileOutputStream extends FilterOutputStream {
+	private final Path target;
+	private final Path temp;
+	private final WriteDurability durability;
+	private final FileChannel channel;
+	private boolean committed;
+	private boolean closed;
+	
+	/**
+	 * Opens a stream for replacing the contents of the given file.
+	 * 
+	 * @param 	path the path to the file.
+	 * @param 	durability the durability of the write.
+	 * @throws 	IOException if an I/O error occurs opening the file.
+	 */
+	public AtomicFileOutputStream(Path path, WriteDurability durability) throws IOException {
+		super(null);
+		this.target = resolveTarget(path);
+		this.durability = durability;
+		if (durability == WriteDurability.Direct) {
+			temp = null;
+			channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE, 
+					StandardOpenOption.TRUNCATE_EXISTING);
+		} else {
+			// Create the temporary file next to the target, a move within the same directory can be atomic
+			temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+			channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+		}
+		out = Channels.newOutputStream(channel);
+	}
+	
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		// The default implementation writes each byte separately
+		out.write(b, off, len);
+	}
+	
+	/**
+	 * Completes the write, after which the target file contains the written content.
+	 * 
+	 * @throws 	IOException if an I/O error occurs completing the write.
+	 */
+	public void commit() throws IOException {
+		flush();
+		if (durability == WriteDurability.Synced) {
+			channel.force(true);
+		}
+		channel.close();
+		if (temp != null) {
+			copyPermissions(target, temp);
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			if (durability == WriteDurability.Synced) {
+				syncDirectory(target.getParent());
+			}
+		}
+		committed = true;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			channel.close();
+		} finally {
+			if (!committed && temp != null) {
+				Files.deleteIfExists(temp);
+			}
+		}
+	}
+	
+	private static Path resolveTarget(Path path) {
+		try {
+			return Files.isSymbolicLink(path) ? path.toRealPath() : path;
+		} catch (IOException e) {
+			return path;
+		}
+	}
+	
+	private static void copyPermissions(Path source, Path target) {
+		PosixFileAttributeView view = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+		if (view == null || !Files.exists(source)) {
+			return;
+		}
+		try {
+			view.setPermissions(Files.readAttributes(source, PosixFileAttributes.class).permissions());
+		} catch (IOException | UnsupportedOperationException e) {
+			// Keep the default permissions of the new file
+		}
+	}
+	
+	private static void syncDirectory(Path directory) {
+		// Forcing a directory makes the move durable, not all platforms support opening a directory though
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Ignore, the file itself has been forced already
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.jvms.i18neditor.io;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * An enum describing the algorithms which can be used to create a checksum of a file.
+ * 
+ * <p>Checksums are only used to detect whether a file has been changed on disk, so there is no need
+ * for a cryptographic hash function. {@link #Murmur3} and {@link #CRC32C} are considerably faster 
+ * than {@link #SHA1}.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public enum ChecksumAlgorithm {
+	SHA1(Hashing.sha1()), 
+	Murmur3(Hashing.murmur3_128()), 
+	CRC32C(Hashing.crc32c());
+	
+	private final HashFunction hashFunction;
+	
+	private ChecksumAlgorithm(HashFunction hashFunction) {
+		this.hashFunction = hashFunction;
+	}
+	
+	public HashFunction getHashFunction() {
+		return hashFunction;
+	}
+}
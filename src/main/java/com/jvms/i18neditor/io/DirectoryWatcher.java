@@ -0,0 +1,139 @@
+package com.jvms.i18neditor.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * This class watches directories for files being created, modified or deleted.
+ * 
+ * <p>Programs often change a file in multiple steps, and tools like version control systems change many files
+ * at once. Changes are therefore debounced: the listener is called once no more changes have been
+ * noticed for the given delay, with the paths of all files changed in the meantime. To still report changes
+ * which keep coming, the listener is called at the latest after the given maximum delay since the first change.
+ * When the file system has lost changes, the path of the directory itself is reported instead.</p>
+ * 
+ * <p>Directories are not watched recursively, each directory to watch must be registered. The listener is called
+ * from a background thread.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public class DirectoryWatcher implements Closeable {
+	private final static Logger log = LoggerFactory.getLogger(DirectoryWatcher.class);
+	private final WatchService service;
+	private final Map<WatchKey,Path> directories = Maps.newConcurrentMap();
+	private final Consumer<Set<Path>> listener;
+	private final long delay;
+	private final long maxDelay;
+	
+	/**
+	 * Creates a new watcher, which starts watching once directories are registered.
+	 * 
+	 * @param 	delay the time in milliseconds without changes after which the listener is called.
+	 * @param 	maxDelay the time in milliseconds after the first change after which the listener is called, 
+	 * 			even when changes are still being noticed.
+	 * @param 	listener the listener to call with the paths of the changed files.
+	 * @throws 	IOException if an I/O error occurs creating the watch service.
+	 */
+	public DirectoryWatcher(long delay, long maxDelay, Consumer<Set<Path>> listener) throws IOException {
+		this.service = FileSystems.getDefault().newWatchService();
+		this.listener = listener;
+		this.delay = delay;
+		this.maxDelay = maxDelay;
+		Thread thread = new Thread(this::run, "directory-watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * Registers a directory to watch, registering a directory which is already watched has no effect.
+	 * 
+	 * @param 	dir the directory.
+	 * @throws 	IOException if an I/O error occurs registering the directory.
+	 */
+	public synchronized void register(Path dir) throws IOException {
+		if (!directories.containsValue(dir)) {
+			WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+			directories.put(key, dir);
+		}
+	}
+	
+	/**
+	 * Stops watching all directories, the listener will not be called anymore.
+	 */
+	@Override
+	public void close() throws IOException {
+		service.close();
+	}
+	
+	private void run() {
+		try {
+			while (true) {
+				Set<Path> paths = Sets.newHashSet();
+				collect(service.take(), paths);
+				// Keep collecting changes until none have been noticed for the given delay, or the maximum delay has passed
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelay);
+				while (true) {
+					long timeout = Math.min(TimeUnit.MILLISECONDS.toNanos(delay), deadline - System.nanoTime());
+					WatchKey key = timeout > 0 ? service.poll(timeout, TimeUnit.NANOSECONDS) : null;
+					if (key == null) {
+						break;
+					}
+					collect(key, paths);
+				}
+				if (!paths.isEmpty()) {
+					try {
+						listener.accept(paths);
+					} catch (RuntimeException e) {
+						log.error("Error handling changed files " + paths, e);
+					}
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// The watcher has been closed
+		}
+	}
+	
+	private void collect(WatchKey key, Set<Path> paths) {
+		Path dir;
+		synchronized (this) {
+			dir = directories.get(key);
+		}
+		if (dir == null) {
+			// Events may arrive before the registration of the directory has been completed, 
+			// the directory is reported so none of its changes are lost
+			paths.add((Path) key.watchable());
+		}
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (dir == null) {
+				continue;
+			}
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				paths.add(dir);
+			} else {
+				paths.add(dir.resolve((Path) event.context()));
+			}
+		}
+		// A key which can not be reset is no longer valid, for example because its directory has been deleted
+		if (!key.reset()) {
+			directories.remove(key);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.jvms.i18neditor.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+/**
+ * This class represents the size, last modified time and file key of a file at a certain moment.
+ * 
+ * <p>Comparing stamps is a cheap way to find out whether a file has been changed, without reading 
+ * its contents. When the stamps of a file are equal the file is assumed to be unchanged. When the 
+ * file key is supported by the file system, a file replaced by another file will be noticed as well.</p>
+ * 
+ * <p>A file changed shortly after its stamp was read may keep the same size and last modified time, 
+ * as file systems store the last modified time with a limited precision. Such a stamp is racy and 
+ * should not be trusted, see {@link #isRacy()}. The moment a stamp was read is not compared by 
+ * {@link #equals(Object)}.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public final class FileStamp {
+	/** The coarsest precision of last modified times of the supported file systems (FAT), in milliseconds. */
+	private final static long TIME_PRECISION = 2000;
+	private final long size;
+	private final FileTime lastModifiedTime;
+	private final Object fileKey;
+	private final long readTime;
+	
+	private FileStamp(long size, FileTime lastModifiedTime, Object fileKey, long readTime) {
+		this.size = size;
+		this.lastModifiedTime = lastModifiedTime;
+		this.fileKey = fileKey;
+		this.readTime = readTime;
+	}
+	
+	/**
+	 * Reads the stamp of the given file.
+	 * 
+	 * @param 	path the path to the file.
+	 * @return 	the stamp of the file.
+	 * @throws 	IOException if an I/O error occurs reading the attributes of the file.
+	 */
+	public static FileStamp read(Path path) throws IOException {
+		// Take the time before reading the attributes, so a change made while reading makes the stamp racy
+		long readTime = System.currentTimeMillis();
+		BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		return new FileStamp(attributes.size(), attributes.lastModifiedTime(), attributes.fileKey(), readTime);
+	}
+	
+	/**
+	 * Gets the size of the file.
+	 * 
+	 * @return 	the size in bytes.
+	 */
+	public long getSize() {
+		return size;
+	}
+	
+	/**
+	 * Gets the last modified time of the file.
+	 * 
+	 * @return 	the last modified time.
+	 */
+	public FileTime getLastModifiedTime() {
+		return lastModifiedTime;
+	}
+	
+	/**
+	 * Whether the file may have been changed after this stamp was read without changing its stamp.
+	 * 
+	 * <p>This is the case when the last modified time of the file is not safely older than the moment 
+	 * the stamp was read, in which case the contents of the file should be compared instead.</p>
+	 * 
+	 * @return 	whether the stamp is racy.
+	 */
+	public boolean isRacy() {
+		return isRacy(readTime);
+	}
+	
+	/**
+	 * Whether the file may have been changed after the given moment without changing its stamp.
+	 * 
+	 * @param 	time the moment the stamp is known to describe the file, in milliseconds since the epoch.
+	 * @return 	whether the stamp is racy at the given moment.
+	 */
+	public boolean isRacy(long time) {
+		return lastModifiedTime.toMillis() >= time - TIME_PRECISION;
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof FileStamp)) {
+			return false;
+		}
+		FileStamp other = (FileStamp) o;
+		return size == other.size 
+				&& lastModifiedTime.equals(other.lastModifiedTime) 
+				&& Objects.equals(fileKey, other.fileKey);
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(size, lastModifiedTime, fileKey);
+	}
+}
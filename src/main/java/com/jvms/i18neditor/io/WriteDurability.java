@@ -0,0 +1,22 @@
+package com.jvms.i18neditor.io;
+
+/**
+ * An enum describing how safely files are written to disk.
+ * 
+ * <ul>
+ * <li>{@link #Direct} overwrites the file in place. This is the fastest, but an interrupted write 
+ * leaves a partially written file and other processes may read partial content.</li>
+ * <li>{@link #Atomic} writes to a temporary file first, which then replaces the file in a single
+ * atomic move. Other processes either see the old or the new content, even when the editor is killed
+ * while writing. A power failure may however still result in an empty or incomplete file.</li>
+ * <li>{@link #Synced} works like {@link #Atomic}, but also forces the temporary file and the directory 
+ * to be written to the storage device, so the new content survives a power failure. This is the slowest.</li>
+ * </ul>
+ * 
+ * @author Jacob van Mourik
+ */
+public enum WriteDurability {
+	Direct, 
+	Atomic, 
+	Synced
+}
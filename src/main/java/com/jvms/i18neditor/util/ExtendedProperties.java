@@ -20,6 +20,8 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.jvms.i18neditor.io.AtomicFileOutputStream;
+import com.jvms.i18neditor.io.WriteDurability;
 
 /**
  * This class extends {@link Properties}.
@@ -95,13 +97,25 @@ public class ExtendedProperties extends Properties {
 	 * @param 	path the path to the property file.
 	 */
 	public void store(Path path) {
-		try (OutputStream out = new OutputStreamWrapper(Files.newOutputStream(path))) {
-			store(out, null);
+		try (AtomicFileOutputStream out = new AtomicFileOutputStream(path, WriteDurability.Atomic)) {
+			store(out);
+			out.commit();
 		} catch (IOException e) {
 			log.error("Unable to store properties to " + path, e);
 		}
 	}
 	
+	/**
+	 * Writes the property list to the given output stream, without the timestamp comment 
+	 * written by {@link #store(OutputStream, String)}. The stream will not be closed.
+	 * 
+	 * @param 	out the output stream.
+	 * @throws 	IOException if an I/O error occurs writing to the stream.
+	 */
+	public void store(OutputStream out) throws IOException {
+		store(new OutputStreamWrapper(out), null);
+	}
+	
 	/**
 	 * Sets a value in the property list. The list of values will be converted
 	 * to a single string separated by {@value #listSeparator}.
@@ -0,0 +1,319 @@
+package com.jvms.i18neditor.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+/**
+ * This class reads and writes the translations of a properties resource file.
+ * 
+ * <p>The file format is the same as the one of {@link java.util.Properties}, but the translations are read
+ * in a single pass directly into a map, escape sequences are converted while reading and the translations
+ * are written in key order.</p>
+ * 
+ * <p>Optionally the comments and blank lines of a file can be read as well. These are kept together with
+ * the key following them, so they can be written back in front of the same key. Comments and blank lines
+ * after the last key are kept by the {@code null} key.</p>
+ * 
+ * <p>Files should be read and written using the ISO 8859-1 character encoding. All characters outside of
+ * the printable ASCII range are written as unicode escape sequences.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+final class PropertiesCodec {
+	private final static char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	private final Reader reader;
+	private final char[] buffer = new char[8192];
+	private final StringBuilder text = new StringBuilder();
+	private int position;
+	private int limit;
+	private boolean end;
+	
+	private PropertiesCodec(Reader reader) {
+		this.reader = reader;
+	}
+	
+	/**
+	 * Reads the translations from the given reader.
+	 * 
+	 * @param 	reader the reader.
+	 * @param 	translations the map to put the translations in.
+	 * @param 	comments the map to put the comments and blank lines in by the key following them,
+	 * 			or {@code null} to skip them.
+	 * @throws 	IOException if an I/O error occurs reading or the content contains an invalid escape sequence.
+	 */
+	public static void read(Reader reader, Map<String,String> translations, Map<String,List<String>> comments)
+			throws IOException {
+		new PropertiesCodec(reader).read(translations, comments);
+	}
+	
+	/**
+	 * Writes the given translations to a writer, empty translations are skipped. The writer will not be closed.
+	 * 
+	 * @param 	writer the writer.
+	 * @param 	translations the translations to write.
+	 * @param 	comments the comments and blank lines to write by the key following them,
+	 * 			or {@code null} to write no comments.
+	 * @throws 	IOException if an I/O error occurs writing.
+	 */
+	public static void write(Writer writer, SortedMap<String,String> translations, Map<String,List<String>> comments)
+			throws IOException {
+		StringBuilder line = new StringBuilder();
+		for (Map.Entry<String,String> entry : translations.entrySet()) {
+			String value = entry.getValue();
+			if (Strings.isNullOrEmpty(value)) {
+				continue;
+			}
+			if (comments != null) {
+				writeLines(writer, comments.get(entry.getKey()));
+			}
+			line.setLength(0);
+			escape(line, entry.getKey(), true);
+			line.append('=');
+			escape(line, value, false);
+			writer.append(line).append(System.lineSeparator());
+		}
+		if (comments != null) {
+			writeLines(writer, comments.get(null));
+		}
+	}
+	
+	private void read(Map<String,String> translations, Map<String,List<String>> comments) throws IOException {
+		List<String> lines = Lists.newArrayList();
+		int c;
+		while ((c = skipWhitespace(read())) != -1) {
+			if (c == '\n' || c == '\r') {
+				skipLineEnd(c);
+				if (comments != null) {
+					lines.add("");
+				}
+			} else if (c == '#' || c == '!') {
+				text.setLength(0);
+				while (c != -1 && c != '\n' && c != '\r') {
+					text.append((char) c);
+					c = read();
+				}
+				skipLineEnd(c);
+				if (comments != null) {
+					lines.add(text.toString());
+				}
+			} else {
+				String key = readKey(c);
+				translations.put(key, readValue());
+				if (!lines.isEmpty()) {
+					comments.put(key, lines);
+					lines = Lists.newArrayList();
+				}
+			}
+		}
+		if (!lines.isEmpty()) {
+			comments.put(null, lines);
+		}
+	}
+	
+	private String readKey(int c) throws IOException {
+		text.setLength(0);
+		while (true) {
+			switch (c) {
+			case -1:
+				return text.toString();
+			case '\n':
+			case '\r':
+			case ' ':
+			case '\t':
+			case '\f':
+				// The separator is optional, the key may also end at whitespace or the end of the line
+				unread();
+				return text.toString();
+			case '=':
+			case ':':
+				unread();
+				return text.toString();
+			case '\\':
+				c = read();
+				if (c == '\n' || c == '\r') {
+					c = skipContinuation(c);
+					continue;
+				}
+				readEscape(c);
+				break;
+			default:
+				text.append((char) c);
+			}
+			c = read();
+		}
+	}
+	
+	private String readValue() throws IOException {
+		int c = skipWhitespace(read());
+		if (c == '=' || c == ':') {
+			c = skipWhitespace(read());
+		}
+		text.setLength(0);
+		while (true) {
+			switch (c) {
+			case -1:
+				return text.toString();
+			case '\n':
+			case '\r':
+				skipLineEnd(c);
+				return text.toString();
+			case '\\':
+				c = read();
+				if (c == '\n' || c == '\r') {
+					c = skipContinuation(c);
+					continue;
+				}
+				readEscape(c);
+				break;
+			default:
+				text.append((char) c);
+			}
+			c = read();
+		}
+	}
+	
+	private void readEscape(int c) throws IOException {
+		switch (c) {
+		case -1:
+			break;
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				int digit = Character.digit(read(), 16);
+				if (digit < 0) {
+					throw new IOException("Malformed \\uxxxx encoding.");
+				}
+				value = (value << 4) | digit;
+			}
+			text.append((char) value);
+			break;
+		case 't':
+			text.append('\t');
+			break;
+		case 'n':
+			text.append('\n');
+			break;
+		case 'r':
+			text.append('\r');
+			break;
+		case 'f':
+			text.append('\f');
+			break;
+		default:
+			text.append((char) c);
+		}
+	}
+	
+	private int skipWhitespace(int c) throws IOException {
+		while (true) {
+			if (c == ' ' || c == '\t' || c == '\f') {
+				c = read();
+			} else if (c == '\\') {
+				// A line continuation before the key or value is skipped like whitespace
+				int next = read();
+				if (next != '\n' && next != '\r') {
+					unread();
+					return c;
+				}
+				c = skipContinuation(next);
+			} else {
+				return c;
+			}
+		}
+	}
+	
+	private int skipContinuation(int c) throws IOException {
+		// The whitespace at the start of a continued line is not part of the key or value
+		skipLineEnd(c);
+		c = read();
+		while (c == ' ' || c == '\t' || c == '\f') {
+			c = read();
+		}
+		return c;
+	}
+	
+	private void skipLineEnd(int c) throws IOException {
+		if (c == '\r' && read() != '\n') {
+			unread();
+		}
+	}
+	
+	private int read() throws IOException {
+		if (position == limit) {
+			int count = reader.read(buffer);
+			if (count < 0) {
+				end = true;
+				return -1;
+			}
+			position = 0;
+			limit = count;
+		}
+		end = false;
+		return buffer[position++];
+	}
+	
+	private void unread() {
+		// Only the last character read can be unread, the end of the input can not
+		if (!end) {
+			position--;
+		}
+	}
+	
+	private static void writeLines(Writer writer, List<String> lines) throws IOException {
+		if (lines != null) {
+			for (String line : lines) {
+				writer.append(line).append(System.lineSeparator());
+			}
+		}
+	}
+	
+	private static void escape(StringBuilder out, String value, boolean key) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\\':
+				out.append("\\\\");
+				break;
+			case ' ':
+				// Leading spaces of a value and all spaces of a key would otherwise be lost
+				if (key || i == 0) {
+					out.append('\\');
+				}
+				out.append(' ');
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\f':
+				out.append("\\f");
+				break;
+			case '=':
+			case ':':
+			case '#':
+			case '!':
+				out.append('\\').append(c);
+				break;
+			default:
+				if (c < 0x20 || c > 0x7e) {
+					out.append("\\u").append(HEX_DIGITS[(c >> 12) & 0xf]).append(HEX_DIGITS[(c >> 8) & 0xf])
+						.append(HEX_DIGITS[(c >> 4) & 0xf]).append(HEX_DIGITS[c & 0xf]);
+				} else {
+					out.append(c);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.jvms.i18neditor.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.TranslationKeyTable;
+import com.jvms.i18neditor.io.AtomicFileOutputStream;
+import com.jvms.i18neditor.io.FileStamp;
+import com.jvms.i18neditor.io.WriteDurability;
+
+/**
+ * This class provides functions for caching the parsed translations of {@link Resource}s on disk.
+ * 
+ * <p>The cache is a single binary file containing a table of all translation keys, followed by the translations
+ * of each resource by key index, together with the checksum, size and last modified time of each resource file.
+ * When a resource file still has the same size and last modified time, its translations are read from the cache
+ * instead of parsing the file.</p>
+ * 
+ * <p>A file modified shortly before the cache was written may since have been changed without changing its size and
+ * last modified time, see {@link FileStamp#isRacy(long)}. For such a file the checksum is compared instead.</p>
+ * 
+ * <p>Only resources without unsaved changes of which the file has not been changed since it was loaded or written
+ * are cached, so the cache always reflects the contents of the files. A cache which can not be read is ignored.</p>
+ * 
+ * <p>The cache file is memory-mapped when read, see {@link Resources#map(Path)}.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public final class ResourceCache {
+	private final static Logger log = LoggerFactory.getLogger(ResourceCache.class);
+	private final static Charset UTF8_ENCODING = Charset.forName("UTF-8");
+	private final static int MAGIC = 0x6931386E;
+	private final static int VERSION = 2;
+	
+	/**
+	 * Reads the translations of the given resources from a cache file.
+	 * 
+	 * <p>The translations, checksum and file stamp are only set to the resources of which the file
+	 * has not been changed since the cache was written, other resources should be loaded using
+	 * {@link Resources#load(Resource)}.</p>
+	 * 
+	 * @param 	file the path to the cache file.
+	 * @param 	root the root directory of the resources.
+	 * @param 	resources the resources to read.
+	 * @return 	the resources of which the translations have been read from the cache.
+	 */
+	public static List<Resource> read(Path file, Path root, List<Resource> resources) {
+		List<Resource> result = Lists.newArrayList();
+		if (!Files.isRegularFile(file)) {
+			return result;
+		}
+		try {
+			ByteBuffer buffer = Resources.map(file);
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				return result;
+			}
+			long writeTime = buffer.getLong();
+			String[] keys = new String[buffer.getInt()];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = readString(buffer);
+			}
+			Map<String,Resource> resourcesByPath = Maps.newHashMap();
+			resources.forEach(resource -> resourcesByPath.put(getRelativePath(root, resource), resource));
+			Map<TranslationKeyTable,int[]> keyIdsByTable = Maps.newIdentityHashMap();
+			int count = buffer.getInt();
+			for (int i = 0; i < count; i++) {
+				Resource resource = resourcesByPath.get(readString(buffer));
+				String type = readString(buffer);
+				long size = buffer.getLong();
+				long lastModifiedTime = buffer.getLong();
+				String checksum = readString(buffer);
+				int valueCount = buffer.getInt();
+				FileStamp stamp = resource == null ? null : FileStamp.read(resource.getPath());
+				if (stamp == null || !resource.getType().name().equals(type) ||
+						stamp.getSize() != size || toNanos(stamp) != lastModifiedTime ||
+						stamp.isRacy(writeTime) && !Resources.verifyChecksum(resource.getPath(), checksum)) {
+					for (int j = 0; j < valueCount; j++) {
+						buffer.getInt();
+						int length = buffer.getInt();
+						buffer.position(buffer.position() + length);
+					}
+					continue;
+				}
+				// Resources usually share a key table, in which case each key is only looked up once
+				int[] keyIds = keyIdsByTable.computeIfAbsent(resource.getKeyTable(), table -> {
+					int[] ids = new int[keys.length];
+					Arrays.fill(ids, -1);
+					return ids;
+				});
+				int[] ids = new int[valueCount];
+				String[] values = new String[valueCount];
+				for (int j = 0; j < valueCount; j++) {
+					int index = buffer.getInt();
+					if (keyIds[index] < 0) {
+						keyIds[index] = resource.getKeyTable().intern(keys[index]);
+					}
+					ids[j] = keyIds[index];
+					values[j] = readString(buffer);
+				}
+				resource.setTranslations(ids, values);
+				resource.setChecksum(checksum);
+				resource.setFileStamp(stamp);
+				result.add(resource);
+			}
+		} catch (IOException | RuntimeException e) {
+			// The resources which have not been read from the cache are simply loaded from their files
+			log.warn("Unable to read resource cache " + file, e);
+		}
+		return result;
+	}
+	
+	/**
+	 * Writes the translations of the given resources to a cache file.
+	 * 
+	 * <p>Resources with unsaved changes or of which the file has been changed since it was
+	 * loaded or written are not written to the cache.</p>
+	 * 
+	 * @param 	file the path to the cache file.
+	 * @param 	root the root directory of the resources.
+	 * @param 	resources the resources to write.
+	 * @throws 	IOException if an I/O error occurs writing the file.
+	 */
+	public static void write(Path file, Path root, List<Resource> resources) throws IOException {
+		// Take the time before checking the files, so a change made while checking makes their stamps racy
+		long writeTime = System.currentTimeMillis();
+		Map<String,Integer> keyIndices = Maps.newLinkedHashMap();
+		Map<Resource,SortedMap<String,String>> snapshots = Maps.newLinkedHashMap();
+		for (Resource resource : resources) {
+			SortedMap<String,String> snapshot = resource.snapshot();
+			FileStamp stamp = resource.getFileStamp();
+			if (resource.isDirty() || resource.getChecksum() == null || stamp == null ||
+					!Files.isRegularFile(resource.getPath()) || !stamp.equals(FileStamp.read(resource.getPath())) ||
+					stamp.isRacy() && !Resources.verifyChecksum(resource.getPath(), resource.getChecksum())) {
+				continue;
+			}
+			snapshot.keySet().forEach(key -> keyIndices.putIfAbsent(key, keyIndices.size()));
+			snapshots.put(resource, snapshot);
+		}
+		try (AtomicFileOutputStream out = new AtomicFileOutputStream(file, WriteDurability.Atomic)) {
+			DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+			data.writeInt(MAGIC);
+			data.writeInt(VERSION);
+			data.writeLong(writeTime);
+			data.writeInt(keyIndices.size());
+			for (String key : keyIndices.keySet()) {
+				writeString(data, key);
+			}
+			data.writeInt(snapshots.size());
+			for (Map.Entry<Resource,SortedMap<String,String>> entry : snapshots.entrySet()) {
+				Resource resource = entry.getKey();
+				writeString(data, getRelativePath(root, resource));
+				writeString(data, resource.getType().name());
+				data.writeLong(resource.getFileStamp().getSize());
+				data.writeLong(toNanos(resource.getFileStamp()));
+				writeString(data, resource.getChecksum());
+				data.writeInt(entry.getValue().size());
+				for (Map.Entry<String,String> translation : entry.getValue().entrySet()) {
+					data.writeInt(keyIndices.get(translation.getKey()));
+					writeString(data, translation.getValue());
+				}
+			}
+			data.flush();
+			out.commit();
+		}
+	}
+	
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, UTF8_ENCODING);
+	}
+	
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(UTF8_ENCODING);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	private static String getRelativePath(Path root, Resource resource) {
+		return root.relativize(resource.getPath()).toString();
+	}
+	
+	private static long toNanos(FileStamp stamp) {
+		return stamp.getLastModifiedTime().to(TimeUnit.NANOSECONDS);
+	}
+}
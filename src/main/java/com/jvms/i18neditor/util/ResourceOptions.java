@@ -0,0 +1,85 @@
+package com.jvms.i18neditor.util;
+
+import com.jvms.i18neditor.io.ChecksumAlgorithm;
+import com.jvms.i18neditor.io.WriteDurability;
+
+/**
+ * This class represents the options used by {@link Resources} for loading and writing resource files.
+ * 
+ * <p>Options are immutable, so the same instance can be used by multiple threads.
+ * The options of the editor are created from its settings.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+public final class ResourceOptions {
+	public final static long DEFAULT_MAPPED_LOAD_THRESHOLD = 16 * 1024 * 1024;
+	public final static ResourceOptions DEFAULT = new ResourceOptions(
+			ChecksumAlgorithm.Murmur3, WriteDurability.Atomic, DEFAULT_MAPPED_LOAD_THRESHOLD, false);
+	private final ChecksumAlgorithm checksumAlgorithm;
+	private final WriteDurability writeDurability;
+	private final long mappedLoadThreshold;
+	private final boolean keepPropertiesComments;
+	
+	/**
+	 * Creates new options.
+	 * 
+	 * @param 	checksumAlgorithm the algorithm used for creating checksums of resource files.
+	 * @param 	writeDurability the durability used for writing resource files.
+	 * @param 	mappedLoadThreshold the file size in bytes from which JSON and ES6 resource files are
+	 * 			memory-mapped, or {@link Long#MAX_VALUE} to never map files.
+	 * @param 	keepPropertiesComments whether comments and blank lines are kept when writing properties resource files.
+	 */
+	public ResourceOptions(ChecksumAlgorithm checksumAlgorithm, WriteDurability writeDurability, long mappedLoadThreshold,
+			boolean keepPropertiesComments) {
+		this.checksumAlgorithm = checksumAlgorithm;
+		this.writeDurability = writeDurability;
+		this.mappedLoadThreshold = mappedLoadThreshold;
+		this.keepPropertiesComments = keepPropertiesComments;
+	}
+	
+	/**
+	 * Gets the algorithm used for creating checksums of resource files.
+	 * 
+	 * <p>Checksums which have already been stored to a resource remain valid,
+	 * as they are always verified using the algorithm they were created with.</p>
+	 * 
+	 * @return 	the checksum algorithm.
+	 */
+	public ChecksumAlgorithm getChecksumAlgorithm() {
+		return checksumAlgorithm;
+	}
+	
+	/**
+	 * Gets the durability used for writing resource files.
+	 * 
+	 * @return 	the write durability.
+	 */
+	public WriteDurability getWriteDurability() {
+		return writeDurability;
+	}
+	
+	/**
+	 * Gets the file size from which JSON and ES6 resource files are loaded by memory-mapping the file,
+	 * instead of reading it as a stream of characters.
+	 * 
+	 * <p>A memory-mapped file is parsed directly from its UTF-8 bytes, which avoids holding a decoded copy
+	 * of the file in memory, but mapping a file has a fixed cost which only pays off for large files.</p>
+	 * 
+	 * @return 	the file size in bytes.
+	 */
+	public long getMappedLoadThreshold() {
+		return mappedLoadThreshold;
+	}
+	
+	/**
+	 * Gets whether comments and blank lines are kept when writing properties resource files.
+	 * 
+	 * <p>When enabled, the comments and blank lines in front of each key are read from the file before it is
+	 * replaced and written back in front of the same key. Comments of keys which have been removed are dropped.</p>
+	 * 
+	 * @return 	whether comments are kept.
+	 */
+	public boolean isKeepPropertiesComments() {
+		return keepPropertiesComments;
+	}
+}
@@ -1,38 +1,53 @@
 package com.jvms.i18neditor.util;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Properties;
+import java.util.Set;
 import java.util.SortedMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.SystemUtils;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonNull;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonPrimitive;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.HashingInputStream;
+import com.google.common.hash.HashingOutputStream;
+import com.google.common.io.ByteStreams;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.jvms.i18neditor.FileStructure;
 import com.jvms.i18neditor.Resource;
 import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationMatrix;
+import com.jvms.i18neditor.io.AtomicFileOutputStream;
+import com.jvms.i18neditor.io.ChecksumAlgorithm;
 import com.jvms.i18neditor.io.ChecksumException;
+import com.jvms.i18neditor.io.FileStamp;
+import com.jvms.i18neditor.io.WriteDurability;
 
 /**
  * This class provides utility functions for a {@link Resource}.
@@ -41,6 +56,9 @@ import com.jvms.i18neditor.io.ChecksumException;
  */
 public final class Resources {
 	private final static Charset UTF8_ENCODING; 
+	private final static Charset PROPERTIES_ENCODING = Charset.forName("ISO-8859-1");
+	private final static String ES6_PREFIX = "export default ";
+	private final static String ES6_SUFFIX = ";";
 	private final static String FILENAME_LOCALE_REGEX;
 	
 	static {
@@ -70,6 +88,25 @@ public final class Resources {
 	 */
 	public static List<Resource> get(Path root, String fileDefinition, FileStructure structure, Optional<ResourceType> type) 
 			throws IOException {
+		return get(root, fileDefinition, structure, type, new TranslationMatrix());
+	}
+	
+	/**
+	 * Gets all resources from the given <code>rootDir</code> directory path, 
+	 * see {@link #get(Path, String, FileStructure, Optional)}.
+	 * 
+	 * <p>All returned resources will store their translations in the given matrix.</p>
+	 * 
+	 * @param 	root the root directory of the resources
+	 * @param 	fileDefinition the resource's file definition for lookup (using locale interpolation)
+	 * @param	structure the file structure used for the lookup
+	 * @param 	type the type of the resource files to look for
+	 * @param 	matrix the matrix shared by the resources
+	 * @return	list of found resources
+	 * @throws 	IOException if an I/O error occurs reading the directory.
+	 */
+	public static List<Resource> get(Path root, String fileDefinition, FileStructure structure, Optional<ResourceType> type, 
+			TranslationMatrix matrix) throws IOException {
 		List<Resource> result = Lists.newLinkedList();
 		List<Path> files = Files.walk(root, 1).collect(Collectors.toList());
 		String defaultFileName = getFilename(fileDefinition, Optional.empty());
@@ -92,7 +129,7 @@ public final class Resources {
 					}
 					Path rf = Paths.get(root.toString(), locale.toString(), getFilename(fileDefinition, Optional.of(locale)) + rt.getExtension());
 					if (Files.isRegularFile(rf)) {
-						result.add(new Resource(rt, rf, locale));
+						result.add(new Resource(rt, rf, locale, matrix));
 					}
 				}
 				if (structure == FileStructure.Flat && Files.isRegularFile(file)) {
@@ -107,7 +144,7 @@ public final class Resources {
 					if (matcher.matches() && matcher.groupCount() > 0) {
 						locale = Locales.parseLocale(matcher.group(1));
 					}
-					result.add(new Resource(rt, file, locale));
+					result.add(new Resource(rt, file, locale, matrix));
 				}
 			}
 		};
@@ -118,28 +155,96 @@ public final class Resources {
 	/**
 	 * Loads the translations of a {@link Resource} from disk.
 	 * 
-	 * <p>This function will store a checksum to the resource.</p>
+	 * <p>This function will store a checksum to the resource, which is created from the bytes read while parsing.</p>
+	 * 
+	 * <p>This function uses the {@link ResourceOptions#DEFAULT default options}.</p>
 	 * 
 	 * @param 	resource the resource.
 	 * @throws 	IOException if an I/O error occurs reading the file.
 	 */
 	public static void load(Resource resource) throws IOException {
+		load(resource, ResourceOptions.DEFAULT);
+	}
+	
+	/**
+	 * Loads the translations of a {@link Resource} from disk using the given options.
+	 * 
+	 * <p>This function will store a checksum to the resource, which is created from the bytes read while parsing.</p>
+	 * 
+	 * <p>JSON and ES6 files of at least the {@link ResourceOptions#getMappedLoadThreshold() mapped load threshold} are 
+	 * memory-mapped and parsed directly from their UTF-8 bytes.</p>
+	 * 
+	 * @param 	resource the resource.
+	 * @param 	options the options.
+	 * @throws 	IOException if an I/O error occurs reading the file.
+	 */
+	public static void load(Resource resource, ResourceOptions options) throws IOException {
+		load(resource, options, -1);
+	}
+	
+	/**
+	 * Reloads the translations of a {@link Resource} from disk, when its file has been changed 
+	 * since it was last loaded or written.
+	 * 
+	 * <p>Only the translations which differ from the file are updated, see {@link Resource#updateTranslations(SortedMap, long)}. 
+	 * The file is not read when its stamp or checksum show it is unchanged, so files written by the editor itself are skipped.
+	 * Resources with unsaved changes are not reloaded, as the conflict is reported when saving them.</p>
+	 * 
+	 * @param 	resource the resource.
+	 * @param 	options the options.
+	 * @return 	the keys of the changed translations, or an empty set if nothing has been changed.
+	 * @throws 	IOException if an I/O error occurs reading the file.
+	 */
+	public static Set<String> reload(Resource resource, ResourceOptions options) throws IOException {
+		String checksum = resource.getChecksum();
+		if (resource.isDirty() || checksum != null && isUnchanged(resource, checksum)) {
+			return Collections.emptySet();
+		}
+		return load(resource, options, resource.getVersion());
+	}
+	
+	private static Set<String> load(Resource resource, ResourceOptions options, long version) throws IOException {
 		ResourceType type = resource.getType();
 		Path path = resource.getPath();
+		ChecksumAlgorithm algorithm = options.getChecksumAlgorithm();
+		// Read the stamp before the contents, so a change made while reading results in a different stamp
+		FileStamp stamp = FileStamp.read(path);
 		SortedMap<String,String> translations;
-		if (type == ResourceType.Properties) {
-			ExtendedProperties content = new ExtendedProperties();
-			content.load(path);
-			translations = fromProperties(content);
+		String checksum;
+		if (type != ResourceType.Properties && stamp.getSize() >= options.getMappedLoadThreshold() && stamp.getSize() <= Integer.MAX_VALUE) {
+			// Parse directly from the mapped bytes, the checksum is created from the same bytes
+			ByteBuffer buffer = map(path);
+			checksum = formatChecksum(algorithm, hash(algorithm, buffer.duplicate()));
+			translations = Utf8JsonParser.parse(buffer, type == ResourceType.ES6);
+		} else {
+			try (HashingInputStream in = new HashingInputStream(algorithm.getHashFunction(), Files.newInputStream(path))) {
+				if (type == ResourceType.Properties) {
+					translations = Maps.newTreeMap();
+					PropertiesCodec.read(new InputStreamReader(in, PROPERTIES_ENCODING), translations, null);
+				} else {
+					Reader reader = new BufferedReader(new InputStreamReader(in, UTF8_ENCODING));
+					translations = fromJson(type == ResourceType.ES6 ? es6ToJson(reader) : reader);
+				}
+				// The parser may stop before the end of the file, the checksum should cover all of it
+				ByteStreams.exhaust(in);
+				checksum = formatChecksum(algorithm, in.hash());
+			}
+		}
+		Set<String> result;
+		if (version < 0) {
+			resource.setTranslations(translations);
+			result = translations.keySet();
 		} else {
-			String content = Files.lines(path, UTF8_ENCODING).collect(Collectors.joining());
-			if (type == ResourceType.ES6) {
-				content = es6ToJson(content);
+			Optional<Set<String>> changes = resource.updateTranslations(translations, version);
+			if (!changes.isPresent()) {
+				// The resource has been edited while reading, keep the checksum of the file it is based on
+				return Collections.emptySet();
 			}
-			translations = fromJson(content);
+			result = changes.get();
 		}
-		resource.setTranslations(translations);
-		resource.setChecksum(createChecksum(resource));
+		resource.setChecksum(checksum);
+		resource.setFileStamp(stamp);
+		return result;
 	}
 	
 	/**
@@ -147,9 +252,13 @@ public final class Resources {
 	 * Empty translation values will be skipped.
 	 * 
 	 * <p>This function will perform a checksum check before saving 
-	 * to see if the file on disk has been changed in the meantime.</p>
+	 * to see if the file on disk has been changed in the meantime. The file is only read for this 
+	 * check when its size, last modified time or file key differ from the time the checksum was created, or when 
+	 * the file was last modified too shortly before that time to rely on these, see {@link FileStamp#isRacy()}.</p>
 	 * 
-	 * <p>This function will store a checksum to the resource.</p>
+	 * <p>This function will store a checksum to the resource, which is created from the bytes written.</p>
+	 * 
+	 * <p>This function uses the {@link ResourceOptions#DEFAULT default options}.</p>
 	 * 
 	 * @param 	resource the resource to write.
 	 * @param   prettyPrinting whether to pretty print the contents
@@ -157,28 +266,79 @@ public final class Resources {
 	 * @throws 	IOException if an I/O error occurs writing the file.
 	 */
 	public static void write(Resource resource, boolean prettyPrinting, boolean flattenKeys) throws IOException {
-		if (resource.getChecksum() != null) {
-			String checksum = createChecksum(resource);
-			if (!checksum.equals(resource.getChecksum())) {
-				throw new ChecksumException("File on disk has been changed.");
-			}
+		write(resource, prettyPrinting, flattenKeys, ResourceOptions.DEFAULT);
+	}
+	
+	/**
+	 * Writes the translations of the given {@link Resource} to disk using the given options, 
+	 * see {@link #write(Resource, boolean, boolean)}.
+	 * 
+	 * <p>Unless the {@link ResourceOptions#getWriteDurability() write durability} is {@link WriteDurability#Direct}, 
+	 * the file is written to a temporary file first, which replaces the file once it has been written completely.</p>
+	 * 
+	 * @param 	resource the resource to write.
+	 * @param   prettyPrinting whether to pretty print the contents
+	 * @param 	flattenKeys whether to write nested keys as flat keys.
+	 * @param 	options the options.
+	 * @throws 	IOException if an I/O error occurs writing the file.
+	 */
+	public static void write(Resource resource, boolean prettyPrinting, boolean flattenKeys, ResourceOptions options) 
+			throws IOException {
+		write(resource, resource.getTranslations(), prettyPrinting, flattenKeys, options);
+	}
+	
+	/**
+	 * Writes the given translations of a {@link Resource} to disk.
+	 * 
+	 * <p>Unlike {@link #write(Resource, boolean, boolean, ResourceOptions)} this function does not read the translations 
+	 * from the resource, which allows writing a snapshot of the translations outside of the thread 
+	 * modifying the resource.</p>
+	 * 
+	 * @param 	resource the resource to write.
+	 * @param 	translations the translations to write.
+	 * @param   prettyPrinting whether to pretty print the contents
+	 * @param 	flattenKeys whether to write nested keys as flat keys.
+	 * @param 	options the options.
+	 * @throws 	IOException if an I/O error occurs writing the file.
+	 */
+	public static void write(Resource resource, SortedMap<String,String> translations, boolean prettyPrinting, 
+			boolean flattenKeys, ResourceOptions options) throws IOException {
+		Path path = resource.getPath();
+		String expectedChecksum = resource.getChecksum();
+		if (expectedChecksum != null && !isUnchanged(resource, expectedChecksum)) {
+			throw new ChecksumException("File on disk has been changed.");
 		}
 		ResourceType type = resource.getType();
-		if (type == ResourceType.Properties) {
-			ExtendedProperties content = toProperties(resource.getTranslations());
-			content.store(resource.getPath());
-		} else {
-			String content = toJson(resource.getTranslations(), prettyPrinting, flattenKeys);
-			if (type == ResourceType.ES6) {
-				content = jsonToEs6(content);
-			}
-			if (!Files.exists(resource.getPath())) {
-				Files.createDirectories(resource.getPath().getParent());
-				Files.createFile(resource.getPath());
+		ChecksumAlgorithm algorithm = options.getChecksumAlgorithm();
+		String checksum;
+		Map<String,List<String>> comments = null;
+		if (type == ResourceType.Properties && options.isKeepPropertiesComments() && Files.isRegularFile(path)) {
+			comments = readPropertiesComments(path);
+		}
+		Files.createDirectories(path.getParent());
+		try (AtomicFileOutputStream file = new AtomicFileOutputStream(path, options.getWriteDurability());
+				HashingOutputStream out = new HashingOutputStream(algorithm.getHashFunction(), file)) {
+			if (type == ResourceType.Properties) {
+				BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, PROPERTIES_ENCODING));
+				PropertiesCodec.write(writer, translations, comments);
+				writer.flush();
+			} else {
+				BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, UTF8_ENCODING));
+				if (type == ResourceType.ES6) {
+					writer.write(ES6_PREFIX);
+				}
+				toJson(writer, translations, prettyPrinting, flattenKeys);
+				if (type == ResourceType.ES6) {
+					writer.write(ES6_SUFFIX);
+				}
+				writer.newLine();
+				writer.flush();
 			}
-			Files.write(resource.getPath(), Lists.newArrayList(content), UTF8_ENCODING);
+			checksum = formatChecksum(algorithm, out.hash());
+			file.commit();
 		}
-		resource.setChecksum(createChecksum(resource));
+		resource.setChecksum(checksum);
+		resource.setFileStamp(FileStamp.read(path));
 	}
 	
 	/**
@@ -198,6 +358,25 @@ public final class Resources {
 	 */
 	public static Resource create(ResourceType type, Path root, String fileDefinition, FileStructure structure, Optional<Locale> locale) 
 			throws IOException {
+		return create(type, root, fileDefinition, structure, locale, new TranslationMatrix(), ResourceOptions.DEFAULT);
+	}
+	
+	/**
+	 * Creates a new {@link Resource} storing its translations in the given matrix and writes it using the given options, 
+	 * see {@link #create(ResourceType, Path, String, FileStructure, Optional)}.
+	 * 
+	 * @param 	type the type of the resource to create.
+	 * @param 	root the root directory to write the resource to.
+	 * @param	filenameDefinition the filename definition of the resource.
+	 * @param	structure the file structure to use
+	 * @param	locale the locale of the resource (optional).
+	 * @param 	matrix the matrix to store the translations in.
+	 * @param 	options the options.
+	 * @return	The newly created resource.
+	 * @throws 	IOException if an I/O error occurs writing the file.
+	 */
+	public static Resource create(ResourceType type, Path root, String fileDefinition, FileStructure structure, Optional<Locale> locale, 
+			TranslationMatrix matrix, ResourceOptions options) throws IOException {
 		String extension = type.getExtension();
 		Path path;
 		if (structure == FileStructure.Nested) {
@@ -205,8 +384,8 @@ public final class Resources {
 		} else {
 			path = Paths.get(root.toString(), getFilename(fileDefinition, locale) + extension);				
 		}
-		Resource resource = new Resource(type, path, locale.orElse(null));
-		write(resource, false, false);
+		Resource resource = new Resource(type, path, locale.orElse(null), matrix);
+		write(resource, false, false, options);
 		return resource;
 	}
 	
@@ -218,115 +397,192 @@ public final class Resources {
 		return fileDefinition.replaceAll(FILENAME_LOCALE_REGEX, locale.isPresent() ? ("$1" + locale.get().toString() + "$2") : "");
 	}
 	
-	private static SortedMap<String,String> fromProperties(Properties properties) {
-		SortedMap<String,String> result = Maps.newTreeMap();
-		properties.forEach((key, value) -> {
-			result.put((String)key, StringEscapeUtils.unescapeJava((String)value));
-		});
+	private static Map<String,List<String>> readPropertiesComments(Path path) throws IOException {
+		Map<String,List<String>> result = Maps.newHashMap();
+		try (Reader reader = Files.newBufferedReader(path, PROPERTIES_ENCODING)) {
+			PropertiesCodec.read(reader, Maps.newHashMap(), result);
+		}
 		return result;
 	}
 	
-	private static ExtendedProperties toProperties(Map<String,String> translations) {
-		ExtendedProperties result = new ExtendedProperties();
-		translations.forEach((key, value) -> {
-			if (!Strings.isNullOrEmpty(value)) {
-				result.put(key, value);
-			}
-		});
+	private static SortedMap<String,String> fromJson(Reader reader) throws IOException {
+		SortedMap<String,String> result = Maps.newTreeMap();
+		JsonReader in = new JsonReader(reader);
+		in.setLenient(true);
+		try {
+			fromJson(in, new StringBuilder(), result);
+		} catch (IllegalStateException e) {
+			throw new IOException("Found invalid json content.", e);
+		}
 		return result;
 	}
 	
-	private static SortedMap<String,String> fromJson(String json) {
-		SortedMap<String,String> result = Maps.newTreeMap();
-		JsonElement elem = new JsonParser().parse(json);
-		fromJson(null, elem, result);
-		return result;
+	private static void fromJson(JsonReader in, StringBuilder key, Map<String,String> content) throws IOException {
+		int length = key.length();
+		in.beginObject();
+		while (in.hasNext()) {
+			String name = in.nextName();
+			key.setLength(length);
+			if (length > 0 && !name.isEmpty()) {
+				key.append('.');
+			}
+			key.append(name);
+			switch (in.peek()) {
+			case BEGIN_OBJECT:
+				fromJson(in, key, content);
+				break;
+			case NULL:
+				in.nextNull();
+				content.put(key.toString(), "");
+				break;
+			case BOOLEAN:
+				content.put(key.toString(), String.valueOf(in.nextBoolean()));
+				break;
+			case STRING:
+			case NUMBER:
+				content.put(key.toString(), StringEscapeUtils.unescapeJava(in.nextString()));
+				break;
+			default:
+				throw new IOException("Found invalid json element.");
+			}
+		}
+		in.endObject();
+		key.setLength(length);
 	}
 	
-	private static void fromJson(String key, JsonElement elem, Map<String,String> content) {
-		if (elem.isJsonObject()) {
-			elem.getAsJsonObject().entrySet().forEach(entry -> {
-				String newKey = key == null ? entry.getKey() : ResourceKeys.create(key, entry.getKey());
-				fromJson(newKey, entry.getValue(), content);
-			});
-		} else if (elem.isJsonPrimitive()) {
-			content.put(key, StringEscapeUtils.unescapeJava(elem.getAsString()));
-		} else if (elem.isJsonNull()) {
-			content.put(key, "");
+	private static void toJson(Writer writer, SortedMap<String,String> translations, boolean prettify, boolean flattenKeys) 
+			throws IOException {
+		JsonWriter out = new JsonWriter(writer);
+		if (prettify) {
+			out.setIndent("  ");
+		}
+		out.beginObject();
+		if (flattenKeys) {
+			for (Map.Entry<String,String> entry : translations.entrySet()) {
+				if (!Strings.isNullOrEmpty(entry.getValue())) {
+					out.name(entry.getKey()).value(entry.getValue());
+				}
+			}
 		} else {
-			throw new IllegalArgumentException("Found invalid json element.");
+			// Keys are sorted, so all child keys of a key are written in one go while keeping a stack of open objects
+			List<String> parents = Lists.newArrayList();
+			for (Map.Entry<String,String> entry : translations.entrySet()) {
+				String key = entry.getKey();
+				if (hasChildKeys(translations, key)) {
+					continue;
+				}
+				String[] parts = ResourceKeys.parts(key);
+				int depth = 0;
+				while (depth < parents.size() && depth < parts.length-1 && parents.get(depth).equals(parts[depth])) {
+					depth++;
+				}
+				while (parents.size() > depth) {
+					out.endObject();
+					parents.remove(parents.size()-1);
+				}
+				for (int i = depth; i < parts.length-1; i++) {
+					out.name(parts[i]).beginObject();
+					parents.add(parts[i]);
+				}
+				if (!Strings.isNullOrEmpty(entry.getValue())) {
+					out.name(parts[parts.length-1]).value(entry.getValue());
+				}
+			}
+			for (int i = 0; i < parents.size(); i++) {
+				out.endObject();
+			}
 		}
+		out.endObject();
+		out.flush();
 	}
 	
-	private static String toJson(Map<String,String> translations, boolean prettify, boolean flattenKeys) {
-		List<String> keys = Lists.newArrayList(translations.keySet());
-		JsonElement elem = !flattenKeys ? toJson(translations, null, keys) : toFlatJson(translations, keys);
-		GsonBuilder builder = new GsonBuilder().disableHtmlEscaping();
-		if (prettify) {
-			builder.setPrettyPrinting();
+	private static boolean hasChildKeys(SortedMap<String,String> translations, String key) {
+		String prefix = key + ".";
+		SortedMap<String,String> tail = translations.tailMap(prefix);
+		return !tail.isEmpty() && tail.firstKey().startsWith(prefix);
+	}
+	
+	private static Reader es6ToJson(Reader reader) throws IOException {
+		// Skip the export statement, the json content ends at the closing brace of the exported object
+		PushbackReader result = new PushbackReader(reader);
+		int c;
+		while ((c = result.read()) != -1) {
+			if (c == '{') {
+				result.unread(c);
+				break;
+			}
 		}
-		return builder.create().toJson(elem);
+		return result;
 	}
 	
-	private static JsonElement toFlatJson(Map<String, String> translations, List<String> keys) {
-		JsonObject object = new JsonObject();
-		if (keys.size() > 0) {
-			translations.forEach((k, v) -> {
-				if (!Strings.isNullOrEmpty(translations.get(k))) {
-					object.add(k, new JsonPrimitive(translations.get(k)));
+	/**
+	 * Maps the contents of a file into memory for reading.
+	 * 
+	 * <p>On Windows the contents are read into a buffer instead, 
+	 * as a mapped file can not be replaced until the mapping has been garbage collected.</p>
+	 * 
+	 * @param 	path the path to the file.
+	 * @return 	the buffer containing the contents of the file.
+	 * @throws 	IOException if an I/O error occurs reading the file.
+	 */
+	static ByteBuffer map(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (SystemUtils.IS_OS_WINDOWS) {
+				ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+					continue;
 				}
-			});			
+				buffer.flip();
+				return buffer;
+			}
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
 		}
-		return object;
 	}
 	
-	private static JsonElement toJson(Map<String,String> translations, String key, List<String> keys) {
-		if (keys.size() > 0) {
-			JsonObject object = new JsonObject();
-			ResourceKeys.uniqueRootKeys(keys).forEach(rootKey -> {
-				String subKey = ResourceKeys.create(key, rootKey);
-				List<String> subKeys = ResourceKeys.extractChildKeys(keys, rootKey);
-				object.add(rootKey, toJson(translations, subKey, subKeys));
-			});
-			return object;
-		}
-		if (key == null) {
-			return new JsonObject();
+	private static HashCode hash(ChecksumAlgorithm algorithm, ByteBuffer buffer) {
+		Hasher hasher = algorithm.getHashFunction().newHasher();
+		byte[] chunk = new byte[8192];
+		while (buffer.hasRemaining()) {
+			int length = Math.min(chunk.length, buffer.remaining());
+			buffer.get(chunk, 0, length);
+			hasher.putBytes(chunk, 0, length);
 		}
-		if (Strings.isNullOrEmpty(translations.get(key))) {
-			return JsonNull.INSTANCE;
-		}
-		return new JsonPrimitive(translations.get(key));
+		return hasher.hash();
 	}
 	
-	private static String es6ToJson(String content) {
-		return content.replaceAll("export +default", "").replaceAll("} *;", "}");
+	private static boolean isUnchanged(Resource resource, String checksum) throws IOException {
+		Path path = resource.getPath();
+		FileStamp stamp = resource.getFileStamp();
+		FileStamp current = FileStamp.read(path);
+		if (stamp != null && !stamp.isRacy() && stamp.equals(current)) {
+			return true;
+		}
+		if (!verifyChecksum(path, checksum)) {
+			return false;
+		}
+		// The stamp read before hashing describes the verified contents, it may no longer be racy next time
+		resource.setFileStamp(current);
+		return true;
 	}
 	
-	private static String jsonToEs6(String content) {
-		return "export default " + content + ";";
+	/**
+	 * Checks whether the contents of a file match the given checksum.
+	 * 
+	 * @param 	path the path to the file.
+	 * @param 	checksum the checksum, as created by this class.
+	 * @return 	whether the checksum of the file is the same.
+	 * @throws 	IOException if an I/O error occurs reading the file.
+	 */
+	static boolean verifyChecksum(Path path, String checksum) throws IOException {
+		// Checksums are prefixed with the name of their algorithm, so they can always be verified
+		int separator = checksum.indexOf(':');
+		ChecksumAlgorithm algorithm = separator < 0 ? ChecksumAlgorithm.SHA1 : ChecksumAlgorithm.valueOf(checksum.substring(0, separator));
+		HashCode hash = com.google.common.io.Files.asByteSource(path.toFile()).hash(algorithm.getHashFunction());
+		return checksum.equals(formatChecksum(algorithm, hash));
 	}
 	
-	private static String createChecksum(Resource resource) throws IOException {
-		MessageDigest digest;
-		try {
-			digest = MessageDigest.getInstance("SHA-1");
-		} catch (NoSuchAlgorithmException e) {
-			return null;
-		}
-		byte[] buffer = new byte[1024];
-		int bytesRead = 0;
-		try (InputStream is = Files.newInputStream(resource.getPath())) {
-			while ((bytesRead = is.read(buffer)) != -1) {
-				digest.update(buffer, 0, bytesRead);
-			}
-		}
-		String result = "";
-		byte[] bytes = digest.digest();
-		for (int i = 0; i < bytes.length; i++) {
-			result += Integer.toString((bytes[i] & 0xff) + 0x100, 16).substring(1);
-		}
-		return result;
+	private static String formatChecksum(ChecksumAlgorithm algorithm, HashCode hash) {
+		return algorithm.name() + ":" + hash.toString();
 	}
 	
 	private static boolean matchesResourceType(Path path, ResourceType type) {
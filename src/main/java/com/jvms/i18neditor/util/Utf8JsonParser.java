@@ -0,0 +1,336 @@
+package com.jvms.i18neditor.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A parser reading the translations of a JSON or ES6 resource file directly from the UTF-8 bytes in a buffer.
+ * 
+ * <p>Unlike decoding the whole file into characters first, only the names and values are decoded, at the moment
+ * they are read. Used together with a memory-mapped buffer this allows parsing very large files without holding a
+ * decoded copy of the file in memory.</p>
+ * 
+ * <p>The parser accepts the same lenient JSON as the stream based parser used by {@link Resources}: names may be
+ * unquoted, strings may use single quotes and comments are skipped. Nested objects result in keys joined by a dot.
+ * For ES6 files all content before the first opening brace is skipped, and all content after the closing brace
+ * of the root object is ignored.</p>
+ * 
+ * @author Jacob van Mourik
+ */
+final class Utf8JsonParser {
+	private final ByteBuffer buffer;
+	private char[] chars = new char[256];
+	private int length;
+	
+	private Utf8JsonParser(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+	
+	/**
+	 * Parses the translations from the given buffer, starting at its position.
+	 * 
+	 * @param 	buffer the buffer containing the UTF-8 encoded content.
+	 * @param 	es6 whether the content is an ES6 module exporting the translations.
+	 * @return 	the translations by key.
+	 * @throws 	IOException if the content is not valid.
+	 */
+	public static SortedMap<String,String> parse(ByteBuffer buffer, boolean es6) throws IOException {
+		Utf8JsonParser parser = new Utf8JsonParser(buffer);
+		SortedMap<String,String> result = Maps.newTreeMap();
+		try {
+			parser.skipByteOrderMark();
+			if (es6) {
+				parser.skipToObject();
+			}
+			if (parser.nextToken() != '{') {
+				throw new IOException("Found invalid json content.");
+			}
+			parser.parseObject(new StringBuilder(), result);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IOException("Found invalid json content.", e);
+		}
+		return result;
+	}
+	
+	private void parseObject(StringBuilder key, Map<String,String> content) throws IOException {
+		int keyLength = key.length();
+		int c = nextToken();
+		while (c != '}') {
+			String name = readName(c);
+			c = nextToken();
+			if (c == '=') {
+				// Lenient name separators are "=" and "=>"
+				if (peek() == '>') {
+					buffer.get();
+				}
+			} else if (c != ':') {
+				throw new IOException("Found invalid json content.");
+			}
+			key.setLength(keyLength);
+			if (keyLength > 0 && !name.isEmpty()) {
+				key.append('.');
+			}
+			key.append(name);
+			c = nextToken();
+			switch (c) {
+			case '{':
+				parseObject(key, content);
+				break;
+			case '"':
+			case '\'':
+				content.put(key.toString(), StringEscapeUtils.unescapeJava(readString(c)));
+				break;
+			case '[':
+			case ']':
+			case '}':
+			case ',':
+			case ':':
+			case -1:
+				throw new IOException("Found invalid json element.");
+			default:
+				String literal = readLiteral(c);
+				if (literal.equalsIgnoreCase("null")) {
+					content.put(key.toString(), "");
+				} else if (literal.equalsIgnoreCase("true") || literal.equalsIgnoreCase("false")) {
+					content.put(key.toString(), literal.toLowerCase());
+				} else {
+					content.put(key.toString(), StringEscapeUtils.unescapeJava(literal));
+				}
+			}
+			c = nextToken();
+			if (c == ',' || c == ';') {
+				c = nextToken();
+			} else if (c != '}') {
+				throw new IOException("Found invalid json content.");
+			}
+		}
+		key.setLength(keyLength);
+	}
+	
+	private String readName(int c) throws IOException {
+		if (c == '"' || c == '\'') {
+			return readString(c);
+		}
+		if (c == -1 || isDelimiter(c)) {
+			throw new IOException("Found invalid json content.");
+		}
+		return readLiteral(c);
+	}
+	
+	private String readString(int quote) throws IOException {
+		length = 0;
+		while (true) {
+			int b = buffer.get() & 0xff;
+			if (b == quote) {
+				return new String(chars, 0, length);
+			}
+			if (b == '\\') {
+				readEscape();
+			} else if (b < 0x80) {
+				append((char) b);
+			} else {
+				readCodePoint(b);
+			}
+		}
+	}
+	
+	private String readLiteral(int c) {
+		length = 0;
+		if (c < 0x80) {
+			append((char) c);
+		} else {
+			readCodePoint(c);
+		}
+		while (buffer.hasRemaining() && !isDelimiter(peek())) {
+			int b = buffer.get() & 0xff;
+			if (b < 0x80) {
+				append((char) b);
+			} else {
+				readCodePoint(b);
+			}
+		}
+		return new String(chars, 0, length);
+	}
+	
+	private void readEscape() throws IOException {
+		int c = buffer.get() & 0xff;
+		switch (c) {
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				int digit = Character.digit(buffer.get(), 16);
+				if (digit < 0) {
+					throw new IOException("Invalid escape sequence.");
+				}
+				value = (value << 4) | digit;
+			}
+			append((char) value);
+			break;
+		case 't':
+			append('\t');
+			break;
+		case 'b':
+			append('\b');
+			break;
+		case 'n':
+			append('\n');
+			break;
+		case 'r':
+			append('\r');
+			break;
+		case 'f':
+			append('\f');
+			break;
+		case '\n':
+		case '\'':
+		case '"':
+		case '\\':
+		case '/':
+			append((char) c);
+			break;
+		default:
+			throw new IOException("Invalid escape sequence.");
+		}
+	}
+	
+	private void readCodePoint(int b) {
+		// Decode a multi-byte UTF-8 sequence, malformed sequences are replaced like a decoding reader would do
+		int count;
+		int codePoint;
+		if ((b & 0xe0) == 0xc0) {
+			count = 1;
+			codePoint = b & 0x1f;
+		} else if ((b & 0xf0) == 0xe0) {
+			count = 2;
+			codePoint = b & 0x0f;
+		} else if ((b & 0xf8) == 0xf0) {
+			count = 3;
+			codePoint = b & 0x07;
+		} else {
+			append('\uFFFD');
+			return;
+		}
+		for (int i = 0; i < count; i++) {
+			if (!buffer.hasRemaining() || (peek() & 0xc0) != 0x80) {
+				append('\uFFFD');
+				return;
+			}
+			codePoint = (codePoint << 6) | (buffer.get() & 0x3f);
+		}
+		if (Character.isSupplementaryCodePoint(codePoint)) {
+			append(Character.highSurrogate(codePoint));
+			append(Character.lowSurrogate(codePoint));
+		} else {
+			append((char) codePoint);
+		}
+	}
+	
+	private void append(char c) {
+		if (length == chars.length) {
+			chars = Arrays.copyOf(chars, length * 2);
+		}
+		chars[length++] = c;
+	}
+	
+	private int nextToken() {
+		while (buffer.hasRemaining()) {
+			int c = buffer.get() & 0xff;
+			switch (c) {
+			case ' ':
+			case '\t':
+			case '\n':
+			case '\r':
+				break;
+			case '#':
+				skipLine();
+				break;
+			case '/':
+				if (buffer.hasRemaining() && peek() == '/') {
+					skipLine();
+				} else if (buffer.hasRemaining() && peek() == '*') {
+					skipComment();
+				} else {
+					return c;
+				}
+				break;
+			default:
+				return c;
+			}
+		}
+		return -1;
+	}
+	
+	private void skipLine() {
+		while (buffer.hasRemaining() && buffer.get() != '\n') {
+			continue;
+		}
+	}
+	
+	private void skipComment() {
+		buffer.get();
+		int previous = 0;
+		while (buffer.hasRemaining()) {
+			int c = buffer.get();
+			if (previous == '*' && c == '/') {
+				return;
+			}
+			previous = c;
+		}
+	}
+	
+	private void skipByteOrderMark() {
+		int position = buffer.position();
+		if (buffer.remaining() >= 3 && (buffer.get(position) & 0xff) == 0xef
+				&& (buffer.get(position+1) & 0xff) == 0xbb && (buffer.get(position+2) & 0xff) == 0xbf) {
+			buffer.position(position + 3);
+		}
+	}
+	
+	private void skipToObject() {
+		// Skip the export statement, the json content starts at the first opening brace
+		while (buffer.hasRemaining()) {
+			if (buffer.get(buffer.position()) == '{') {
+				return;
+			}
+			buffer.get();
+		}
+	}
+	
+	private int peek() {
+		return buffer.get(buffer.position()) & 0xff;
+	}
+	
+	private static boolean isDelimiter(int c) {
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\n':
+		case '\r':
+		case '\f':
+		case ',':
+		case ':':
+		case '=':
+		case ';':
+		case '#':
+		case '/':
+		case '\\':
+		case '{':
+		case '}':
+		case '[':
+		case ']':
+		case '"':
+		case '\'':
+			return true;
+		default:
+			return false;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.jvms.i18neditor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class PersistentColumnTest {
+	
+	@Test
+	public void setTest() {
+		PersistentColumn column = new PersistentColumn();
+		assertEquals(0, column.get(0));
+		assertEquals(0, column.get(100000));
+		
+		column.set(3, 3);
+		column.set(100000, 100000);
+		column.set(31, 31);
+		column.set(32, 32);
+		assertEquals(3, column.get(3));
+		assertEquals(31, column.get(31));
+		assertEquals(32, column.get(32));
+		assertEquals(100000, column.get(100000));
+		assertEquals(0, column.get(99999));
+		
+		column.set(3, 0);
+		assertEquals(0, column.get(3));
+		
+		List<Integer> rows = Lists.newArrayList();
+		column.forEach((row, handle) -> {
+			assertEquals(row, handle);
+			rows.add(row);
+		});
+		assertEquals(Lists.newArrayList(31, 32, 100000), rows);
+	}
+	
+	@Test
+	public void snapshotTest() {
+		PersistentColumn column = new PersistentColumn();
+		for (int i = 0; i < 1000; i++) {
+			column.set(i, i+1);
+		}
+		PersistentColumn.Snapshot snapshot = column.snapshot();
+		column.set(10, 42);
+		column.set(5000, 5000);
+		column.replaceAll(handle -> handle * 2);
+		PersistentColumn.Snapshot snapshot2 = column.snapshot();
+		column.set(10, 0);
+		
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i+1, snapshot.get(i));
+		}
+		assertEquals(0, snapshot.get(5000));
+		assertEquals(84, snapshot2.get(10));
+		assertEquals(10000, snapshot2.get(5000));
+		assertEquals(0, column.get(10));
+		assertEquals(24, column.get(11));
+	}
+}
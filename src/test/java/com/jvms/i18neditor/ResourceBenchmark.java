@@ -0,0 +1,50 @@
+package com.jvms.i18neditor;
+
+import java.util.Locale;
+import java.util.SortedMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Benchmark measuring the cost of renaming a small subtree and of taking a snapshot after each edit 
+ * in resources with a growing number of keys.
+ * 
+ * <p>Run this class directly, it is not part of the test suite.</p>
+ * 
+ * @author Jacob
+ */
+public class ResourceBenchmark {
+	private final static int RENAMES = 1000;
+	private final static int SNAPSHOTS = 10000;
+	
+	public static void main(String[] args) {
+		for (int size : new int[] { 1000, 10000, 100000 }) {
+			SortedMap<String,String> translations = Maps.newTreeMap();
+			for (int i = 0; i < size; i++) {
+				translations.put("module" + (i % 50) + ".page" + (i % (size / 20)) + ".label" + i, "value" + i);
+			}
+			Resource resource = new Resource(ResourceType.JSON, null, Locale.ENGLISH);
+			resource.setTranslations(translations);
+			
+			// Each page node contains 20 keys
+			String key = "module0.page0";
+			long start = System.nanoTime();
+			for (int i = 0; i < RENAMES; i++) {
+				String newKey = "module0.renamed" + i;
+				resource.renameTranslation(key, newKey);
+				key = newKey;
+			}
+			long elapsed = (System.nanoTime() - start) / RENAMES;
+			
+			// Edit a single value before each snapshot, so every snapshot differs from the previous one
+			start = System.nanoTime();
+			for (int i = 0; i < SNAPSHOTS; i++) {
+				resource.storeTranslation(key + ".label", "value" + i);
+				resource.snapshot();
+			}
+			long snapshotElapsed = (System.nanoTime() - start) / SNAPSHOTS;
+			
+			System.out.println(String.format("%7d keys: %8d ns/rename %8d ns/edit+snapshot", size, elapsed, snapshotElapsed));
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.jvms.i18neditor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ *
+ * @author Jacob
+ */
+public class ResourceConcurrencyTest {
+	private final static int THREADS = 8;
+	private final static int ITERATIONS = 2000;
+	private ExecutorService executor;
+	private Resource resource;
+
+	@Before
+	public void setup() {
+		executor = Executors.newFixedThreadPool(THREADS + 1);
+		resource = new Resource(ResourceType.JSON, null, new Locale("en"));
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void concurrentStoreTest() throws Exception {
+		AtomicInteger activeListeners = new AtomicInteger();
+		AtomicInteger overlappingCalls = new AtomicInteger();
+		Map<String,Integer> lastSequence = Maps.newConcurrentMap();
+		AtomicInteger outOfOrderEvents = new AtomicInteger();
+		resource.addListener(e -> {
+			if (activeListeners.incrementAndGet() > 1) {
+				overlappingCalls.incrementAndGet();
+			}
+			// Each thread stores increasing sequence numbers in its own shared key
+			e.getKeys().stream().filter(k -> k.startsWith("shared.")).forEach(key -> {
+				String value = e.getNewValue(key);
+				if (value != null) {
+					int sequence = Integer.parseInt(value);
+					Integer last = lastSequence.put(key, sequence);
+					if (last != null && last >= sequence) {
+						outOfOrderEvents.incrementAndGet();
+					}
+				}
+			});
+			activeListeners.decrementAndGet();
+		});
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = Lists.newArrayList();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			results.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < ITERATIONS; i++) {
+					resource.storeTranslation("t" + thread + ".k" + i, "v" + i);
+					resource.storeTranslation("shared.t" + thread, String.valueOf(i));
+					if (i % 10 == 0) {
+						resource.renameTranslation("t" + thread + ".k" + i, "t" + thread + ".r" + i);
+					}
+				}
+				return null;
+			}));
+		}
+		// Read consistent snapshots while the resource is being modified
+		results.add(executor.submit(() -> {
+			start.await();
+			while (results.stream().limit(THREADS).anyMatch(f -> !f.isDone())) {
+				SortedMap<String,String> snapshot = resource.snapshot();
+				List<String> keys = Lists.newArrayList(snapshot.keySet());
+				assertEquals(keys, Lists.newArrayList(snapshot.keySet()));
+			}
+			return null;
+		}));
+		start.countDown();
+		for (Future<?> result : results) {
+			result.get(60, TimeUnit.SECONDS);
+		}
+
+		assertEquals(0, overlappingCalls.get());
+		assertEquals(0, outOfOrderEvents.get());
+		assertEquals(THREADS * (ITERATIONS + 1), resource.getTranslationCount());
+		for (int t = 0; t < THREADS; t++) {
+			assertEquals(String.valueOf(ITERATIONS - 1), resource.getTranslation("shared.t" + t));
+			assertEquals(String.valueOf(ITERATIONS - 1), lastSequence.get("shared.t" + t).toString());
+			assertNull(resource.getTranslation("t" + t + ".k0"));
+			assertEquals("v0", resource.getTranslation("t" + t + ".r0"));
+			assertEquals("v1", resource.getTranslation("t" + t + ".k1"));
+		}
+	}
+
+	@Test
+	public void concurrentParentChildTest() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = Lists.newArrayList();
+		for (int t = 0; t < THREADS; t++) {
+			int thread = t;
+			results.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < ITERATIONS; i++) {
+					// Storing a parent key removes its children and vice versa, which must happen atomically
+					if ((i + thread) % 2 == 0) {
+						resource.storeTranslation("a.b", "parent" + i);
+					} else {
+						resource.storeTranslation("a.b.c" + thread, "child" + i);
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> result : results) {
+			result.get(60, TimeUnit.SECONDS);
+		}
+
+		boolean hasParent = resource.getTranslation("a.b") != null;
+		boolean hasChildren = resource.getTranslationKeys().stream().anyMatch(k -> k.startsWith("a.b."));
+		assertTrue(hasParent != hasChildren);
+		assertEquals(resource.getTranslations().size(), resource.getTranslationCount());
+	}
+}
@@ -1,12 +1,15 @@
 package com.jvms.i18neditor;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.SortedMap;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.jvms.i18neditor.Resource;
 
 import static org.junit.Assert.*;
@@ -213,4 +216,203 @@ public class ResourceTest {
 		resource.storeTranslation("a.b", "ab");
 		resource.duplicateTranslation("a", "b c");
 	}
+	
+	@Test
+	public void dirtyTest() {
+		assertFalse(resource.isDirty());
+		
+		resource.storeTranslation("a.a", "aa");
+		assertFalse(resource.isDirty());
+		
+		resource.storeTranslation("a.a", "b");
+		assertTrue(resource.isDirty());
+		
+		resource.setDirty(false);
+		resource.removeTranslation("c");
+		assertFalse(resource.isDirty());
+		
+		resource.removeTranslation("a.b");
+		assertTrue(resource.isDirty());
+	}
+	
+	@Test
+	public void markSavedTest() {
+		resource.storeTranslation("a.a", "b");
+		long version = resource.getVersion();
+		
+		// A change made while writing keeps the resource dirty
+		resource.storeTranslation("a.a", "c");
+		resource.markSaved(version);
+		assertTrue(resource.isDirty());
+		
+		resource.markSaved(resource.getVersion());
+		assertFalse(resource.isDirty());
+	}
+	
+	@Test
+	public void subtreeBoundaryTest() {
+		SortedMap<String,String> translations;
+		
+		resource.storeTranslation("a.b-c", "abc");
+		resource.storeTranslation("a.bc", "abc");
+		resource.storeTranslation("a.b/c", "abc");
+		resource.renameTranslation("a.b", "a.d");
+		
+		translations = resource.getTranslations();
+		assertEquals(5, translations.size());
+		assertEquals("ab", translations.get("a.d"));
+		assertEquals("abc", translations.get("a.b-c"));
+		assertEquals("abc", translations.get("a.bc"));
+		assertEquals("abc", translations.get("a.b/c"));
+		
+		resource.removeTranslation("a.b");
+		
+		translations = resource.getTranslations();
+		assertEquals(5, translations.size());
+		
+		resource.storeTranslation("a.bc.d", "abcd");
+		
+		translations = resource.getTranslations();
+		assertEquals(5, translations.size());
+		assertNull(translations.get("a.bc"));
+		assertEquals("abcd", translations.get("a.bc.d"));
+		assertEquals("abc", translations.get("a.b-c"));
+	}
+	
+	@Test
+	public void snapshotTest() {
+		SortedMap<String,String> translations = resource.getTranslations();
+		SortedMap<String,String> snapshot = resource.snapshot();
+		assertSame(snapshot, resource.snapshot());
+		
+		resource.storeTranslation("a.c", "ac");
+		
+		assertEquals(3, translations.size());
+		assertEquals("ac", translations.get("a.c"));
+		assertEquals(3, resource.getTranslationCount());
+		assertEquals(2, snapshot.size());
+		assertNull(snapshot.get("a.c"));
+		assertNotSame(snapshot, resource.snapshot());
+		assertEquals(3, resource.snapshot().size());
+	}
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void modifyTranslationsViewTest() {
+		resource.getTranslations().put("a.c", "ac");
+	}
+	
+	@Test
+	public void batchTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resource.addListener(events::add);
+		
+		resource.batch(() -> {
+			resource.storeTranslation("a.c", "ac");
+			resource.batch(() -> resource.removeTranslation("a.a"));
+			resource.storeTranslation("a.b", "ab");
+			assertTrue(events.isEmpty());
+		});
+		
+		assertEquals(1, events.size());
+		assertEquals(Sets.newHashSet("a.a", "a.c"), events.get(0).getKeys());
+		
+		events.clear();
+		resource.batch(() -> resource.storeTranslation("a.b", "ab"));
+		resource.removeTranslation("c");
+		assertTrue(events.isEmpty());
+		
+		resource.duplicateTranslation("a", "b");
+		assertEquals(1, events.size());
+		assertEquals(Sets.newHashSet("b.b", "b.c"), events.get(0).getKeys());
+	}
+	
+	@Test
+	public void eventDeltaTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resource.addListener(events::add);
+		
+		resource.batch(() -> {
+			resource.storeTranslation("a.a", "b");
+			resource.storeTranslation("a.c", "ac");
+			resource.removeTranslation("a.b");
+			resource.storeTranslation("a.d", "ad");
+			resource.removeTranslation("a.d");
+		});
+		
+		assertEquals(1, events.size());
+		ResourceEvent event = events.get(0);
+		assertEquals(Sets.newHashSet("a.a", "a.b", "a.c"), event.getKeys());
+		assertEquals(Sets.newHashSet("a.c"), event.getAddedKeys());
+		assertEquals(Sets.newHashSet("a.b"), event.getRemovedKeys());
+		assertEquals(Sets.newHashSet("a.a"), event.getChangedKeys());
+		assertEquals("aa", event.getOldValue("a.a"));
+		assertEquals("b", event.getNewValue("a.a"));
+		assertEquals("ab", event.getOldValue("a.b"));
+		assertNull(event.getNewValue("a.b"));
+		assertTrue(event.getRenamedKeys().isEmpty());
+		
+		events.clear();
+		resource.batch(() -> {
+			resource.renameTranslation("a", "b");
+			resource.renameTranslation("b.a", "c");
+		});
+		
+		assertEquals(1, events.size());
+		event = events.get(0);
+		assertEquals(Sets.newHashSet("b.c", "c"), event.getAddedKeys());
+		assertEquals(Sets.newHashSet("a.a", "a.c"), event.getRemovedKeys());
+		assertEquals("c", event.getRenamedKeys().get("a.a"));
+		assertEquals("b.c", event.getRenamedKeys().get("a.c"));
+		assertEquals(2, event.getRenamedKeys().size());
+	}
+	
+	@Test
+	public void updateTranslationsTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		resource.addListener(events::add);
+		SortedMap<String,String> translations = Maps.newTreeMap();
+		translations.put("a.a", "aa");
+		translations.put("a.b", "b");
+		translations.put("a.c", "ac");
+		
+		assertEquals(Sets.newHashSet("a.b", "a.c"), resource.updateTranslations(translations, resource.getVersion()).get());
+		assertEquals(translations, resource.getTranslations());
+		assertFalse(resource.isDirty());
+		assertEquals(1, events.size());
+		assertEquals(Sets.newHashSet("a.c"), events.get(0).getAddedKeys());
+		assertEquals(Sets.newHashSet("a.b"), events.get(0).getChangedKeys());
+		
+		translations.remove("a.a");
+		long version = resource.getVersion();
+		resource.storeTranslation("a.c", "c");
+		resource.setDirty(false);
+		
+		// Translations changed since the given version are never overwritten
+		assertFalse(resource.updateTranslations(translations, version).isPresent());
+		assertEquals("aa", resource.getTranslation("a.a"));
+		assertEquals("c", resource.getTranslation("a.c"));
+		
+		resource.storeTranslation("a.a", "a");
+		assertFalse(resource.updateTranslations(translations, resource.getVersion()).isPresent());
+		assertEquals("a", resource.getTranslation("a.a"));
+	}
+	
+	@Test
+	public void removeListenerWhileNotifyingTest() {
+		List<ResourceEvent> events = Lists.newArrayList();
+		ResourceListener listener = new ResourceListener() {
+			@Override
+			public void resourceChanged(ResourceEvent e) {
+				events.add(e);
+				resource.removeListener(this);
+			}
+		};
+		resource.addListener(listener);
+		resource.addListener(events::add);
+		
+		resource.storeTranslation("a.c", "ac");
+		resource.storeTranslation("a.d", "ad");
+		
+		assertEquals(3, events.size());
+	}
 }
@@ -0,0 +1,57 @@
+package com.jvms.i18neditor;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Benchmark measuring the cost of taking a snapshot of a column and iterating it, for a column having
+ * a value for every key and for a column having a value for only one percent of the keys of the matrix.
+ *
+ * <p>Run this class directly, it is not part of the test suite.</p>
+ *
+ * @author Jacob
+ */
+public class SnapshotBenchmark {
+	private final static int RUNS = 100;
+
+	public static void main(String[] args) {
+		for (int size : new int[] { 1000, 10000, 100000 }) {
+			TranslationMatrix matrix = new TranslationMatrix();
+			int full = matrix.addColumn();
+			int sparse = matrix.addColumn();
+			for (int i = 0; i < size; i++) {
+				String key = "module" + (i % 50) + ".page" + (i % (size / 20)) + ".label" + i;
+				matrix.set(key, full, "value" + i);
+				if (i % 100 == 0) {
+					matrix.set(key, sparse, "value" + i);
+				}
+			}
+			// Warm up, the result is printed so the iterations are not optimized away
+			long checksum = iterate(matrix, full) + iterate(matrix, sparse);
+
+			long start = System.nanoTime();
+			for (int run = 0; run < RUNS; run++) {
+				checksum += iterate(matrix, full);
+			}
+			long fullElapsed = (System.nanoTime() - start) / RUNS / 1000;
+			start = System.nanoTime();
+			for (int run = 0; run < RUNS; run++) {
+				checksum += iterate(matrix, sparse);
+			}
+			long sparseElapsed = (System.nanoTime() - start) / RUNS / 1000;
+
+			System.out.println(String.format("%8d keys: full column %8d us/snapshot, sparse column %8d us/snapshot (%d)",
+					size, fullElapsed, sparseElapsed, checksum));
+		}
+	}
+
+	private static long iterate(TranslationMatrix matrix, int column) {
+		// A snapshot is iterated once, like when writing a resource file
+		SortedMap<String,String> snapshot = matrix.snapshot(column);
+		long result = snapshot.size();
+		for (Map.Entry<String,String> entry : snapshot.entrySet()) {
+			result += entry.getKey().length() + entry.getValue().length();
+		}
+		return result;
+	}
+}
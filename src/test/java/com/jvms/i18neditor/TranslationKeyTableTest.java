@@ -0,0 +1,77 @@
+package com.jvms.i18neditor;
+
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import static org.junit.Assert.*;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class TranslationKeyTableTest {
+	private TranslationKeyTable keyTable;
+	private Resource en;
+	private Resource nl;
+	
+	@Before
+	public void setup() {
+		TranslationMatrix matrix = new TranslationMatrix();
+		keyTable = matrix.getKeyTable();
+		en = new Resource(ResourceType.JSON, null, new Locale("en"), matrix);
+		nl = new Resource(ResourceType.JSON, null, new Locale("nl"), matrix);
+	}
+	
+	@Test
+	public void internTest() {
+		assertEquals(-1, keyTable.getId("a"));
+		assertEquals(0, keyTable.intern("b"));
+		assertEquals(1, keyTable.intern("a"));
+		assertEquals(0, keyTable.intern("b"));
+		assertEquals(1, keyTable.getId("a"));
+		assertEquals("a", keyTable.getKey(1));
+		assertEquals(2, keyTable.size());
+		
+		// Only keys in use are sorted
+		assertTrue(keyTable.getIds().isEmpty());
+		keyTable.retain(0);
+		keyTable.retain(1);
+		keyTable.retain(1);
+		assertEquals(Lists.newArrayList("a", "b"), Lists.newArrayList(keyTable.getIds().keySet()));
+		keyTable.release(1);
+		keyTable.release(0);
+		assertEquals(Lists.newArrayList("a"), Lists.newArrayList(keyTable.getIds().keySet()));
+		assertEquals(0, keyTable.getId("b"));
+	}
+	
+	@Test
+	public void sharedKeysTest() {
+		en.storeTranslation("a.b", "ab");
+		en.storeTranslation("a.a", "aa");
+		nl.storeTranslation("a.b", "ab-nl");
+		nl.storeTranslation("b", "b-nl");
+		
+		assertEquals(3, keyTable.size());
+		int id = keyTable.getId("a.b");
+		assertEquals("ab", en.getTranslation(id));
+		assertEquals("ab-nl", nl.getTranslation(id));
+		assertNull(en.getTranslation(keyTable.getId("b")));
+		
+		assertEquals(Lists.newArrayList("a.a", "a.b"), Lists.newArrayList(en.getTranslationKeys()));
+		assertEquals(Lists.newArrayList("a.b", "b"), Lists.newArrayList(nl.getTranslationKeys()));
+		assertEquals(2, en.getTranslationCount());
+		
+		en.removeTranslation("a");
+		
+		// Keys without any value are no longer sorted, but keep their id
+		assertEquals(Lists.newArrayList("a.b", "b"), Lists.newArrayList(keyTable.getIds().keySet()));
+		assertEquals(3, keyTable.size());
+		assertTrue(en.getTranslations().isEmpty());
+		assertEquals(0, en.getTranslationCount());
+		assertEquals("ab-nl", nl.getTranslation("a.b"));
+	}
+}
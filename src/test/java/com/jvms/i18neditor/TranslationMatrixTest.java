@@ -0,0 +1,225 @@
+package com.jvms.i18neditor;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class TranslationMatrixTest {
+	private TranslationMatrix matrix;
+	private Resource en;
+	private Resource nl;
+	
+	@Before
+	public void setup() throws Exception {
+		matrix = new TranslationMatrix();
+		
+		SortedMap<String,String> translations = Maps.newTreeMap();
+		translations.put("a.a", "aa");
+		translations.put("a.b", "ab");
+		en = new Resource(ResourceType.JSON, null, new Locale("en"), matrix);
+		en.setTranslations(translations);
+		
+		translations = Maps.newTreeMap();
+		translations.put("a.a", "aa");
+		translations.put("a.c", "");
+		nl = new Resource(ResourceType.JSON, null, new Locale("nl"), matrix);
+		nl.setTranslations(translations);
+		
+		matrix.addCoverage(en.getColumn());
+		matrix.addCoverage(nl.getColumn());
+	}
+	
+	@Test
+	public void isCompleteTest() {
+		assertTrue(matrix.isComplete("a.a"));
+		assertFalse(matrix.isComplete("a.b"));
+		assertFalse(matrix.isComplete("a.c"));
+		assertTrue(matrix.isComplete("a"));
+		assertEquals(Sets.newHashSet("a.b", "a.c"), matrix.getIncompleteKeys());
+		assertEquals(columns(nl), matrix.getMissingColumns("a.b"));
+		assertEquals(columns(en, nl), matrix.getMissingColumns("a.c"));
+		assertTrue(matrix.isFilled("a.b"));
+		assertFalse(matrix.isFilled("a.c"));
+	}
+	
+	@Test
+	public void updateTest() {
+		nl.storeTranslation("a.b", "ab");
+		en.storeTranslation("a.c", "ac");
+		assertTrue(matrix.isComplete("a.b"));
+		assertFalse(matrix.isComplete("a.c"));
+		
+		en.removeTranslation("a");
+		assertFalse(matrix.isComplete("a.a"));
+		assertFalse(matrix.isComplete("a.b"));
+		
+		nl.removeTranslation("a");
+		assertTrue(matrix.getIncompleteKeys().isEmpty());
+		
+		en.storeTranslation("b", "b");
+		nl.storeTranslation("b", "b");
+		nl.renameTranslation("b", "c");
+		assertFalse(matrix.isComplete("b"));
+		assertFalse(matrix.isComplete("c"));
+	}
+	
+	@Test
+	public void coverageTest() {
+		matrix.removeCoverage(nl.getColumn());
+		assertTrue(matrix.isComplete("a.b"));
+		assertTrue(matrix.isComplete("a.c"));
+		
+		Resource de = new Resource(ResourceType.JSON, null, new Locale("de"), matrix);
+		de.storeTranslation("a.a", "aa");
+		matrix.addCoverage(de.getColumn());
+		matrix.addCoverage(nl.getColumn());
+		assertTrue(matrix.isComplete("a.a"));
+		assertFalse(matrix.isComplete("a.b"));
+		assertArrayEquals(new String[] { "aa", "aa", "aa" }, matrix.getRow("a.a"));
+		assertArrayEquals(new String[] { "ab", null, null }, matrix.getRow("a.b"));
+	}
+	
+	@Test
+	public void rowsTest() {
+		for (int i = 0; i < 10; i++) {
+			new Resource(ResourceType.JSON, null, new Locale("x" + i), matrix).storeTranslation("a.a", "x" + i);
+		}
+		assertEquals(12, matrix.getColumnCount());
+		assertEquals(12, matrix.getRow("a.a").length);
+		assertEquals("aa", en.getTranslation("a.a"));
+		assertEquals("x9", matrix.get("a.a", 11));
+		assertEquals(2, matrix.getValueCount(en.getColumn()));
+		assertEquals(1, matrix.getFilledCount(nl.getColumn()));
+	}
+	
+	@Test
+	public void valueStorageTest() {
+		String large = Strings.repeat("\u00e9", 1 << 20);
+		en.storeTranslation("b", "\u00fcber \ud83d\ude00");
+		en.storeTranslation("c", large);
+		for (ValueStorage storage : ValueStorage.values()) {
+			matrix.setValueStorage(storage);
+			assertEquals(storage, matrix.getValueStorage());
+			assertEquals("aa", en.getTranslation("a.a"));
+			assertEquals("", nl.getTranslation("a.c"));
+			assertEquals("\u00fcber \ud83d\ude00", en.getTranslation("b"));
+			assertEquals(large, en.getTranslation("c"));
+			assertFalse(matrix.isComplete("a.c"));
+			assertEquals(6, matrix.getMemoryReport().getValueCount());
+		}
+	}
+	
+	@Test
+	public void compactStorageTest() {
+		matrix.setValueStorage(ValueStorage.Compact);
+		String prefix = Strings.repeat("x", 100);
+		for (int i = 0; i < 20000; i++) {
+			en.storeTranslation("a.a", prefix + i);
+			nl.storeTranslation("k" + (i % 100), prefix + i);
+		}
+		assertEquals(prefix + 19999, en.getTranslation("a.a"));
+		assertEquals(prefix + 19900, nl.getTranslation("k0"));
+		
+		MemoryReport report = matrix.getMemoryReport();
+		assertEquals(ValueStorage.Compact, report.getStorage());
+		assertEquals(104, report.getValueCount());
+		assertTrue(report.getAllocatedSize() <= 2 << 20);
+		
+		for (int i = 0; i < 50000; i++) {
+			nl.storeTranslation("k" + i, "value " + i);
+		}
+		report = matrix.getMemoryReport();
+		assertTrue(report.getSavedSize() > 0);
+		assertTrue(report.getAllocatedSize() < report.getStringSize() / 2);
+	}
+	
+	@Test
+	public void snapshotTest() throws Exception {
+		matrix.setValueStorage(ValueStorage.Compact);
+		SortedMap<String,String> snapshot = matrix.snapshot(en.getColumn());
+		en.storeTranslation("a.a", "changed");
+		en.storeTranslation("a.c", "ac");
+		en.removeTranslation("a.b");
+		
+		SortedMap<String,String> expected = Maps.newTreeMap();
+		expected.put("a.a", "aa");
+		expected.put("a.b", "ab");
+		assertEquals(expected, snapshot);
+		
+		// Snapshots keep reading from the old store when the values are moved to a new store
+		matrix.setValueStorage(ValueStorage.Strings);
+		assertEquals(expected, snapshot);
+		assertEquals("changed", en.getTranslation("a.a"));
+		
+		// Snapshots can be read while the matrix is being modified
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < 20000; i++) {
+				en.storeTranslation("a.a", "value " + i);
+				nl.storeTranslation("b." + i, "value " + i);
+			}
+		});
+		writer.start();
+		while (writer.isAlive()) {
+			assertEquals(expected, snapshot);
+		}
+		writer.join();
+		assertEquals("value 19999", en.getTranslation("a.a"));
+	}
+	
+	@Test
+	public void setColumnTest() {
+		TranslationKeyTable keyTable = matrix.getKeyTable();
+		matrix.setColumn(nl.getColumn(), new int[] { keyTable.intern("a.b"), keyTable.intern("b") }, new String[] { "ab", "" });
+		assertNull(nl.getTranslation("a.a"));
+		assertEquals("ab", nl.getTranslation("a.b"));
+		assertEquals(2, nl.getTranslationCount());
+		assertEquals(1, matrix.getFilledCount(nl.getColumn()));
+		assertEquals(Sets.newHashSet("a.a", "b"), matrix.getIncompleteKeys());
+	}
+	
+	@Test
+	public void lockFreeReadTest() throws Exception {
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch read = new CountDownLatch(1);
+		Thread holder = new Thread(() -> {
+			synchronized (matrix) {
+				locked.countDown();
+				Uninterruptibles.awaitUninterruptibly(read);
+			}
+		});
+		holder.start();
+		locked.await();
+		
+		// Reads are served from the published view, so they do not wait for the thread holding the lock
+		assertEquals("aa", matrix.get("a.a", en.getColumn()));
+		assertArrayEquals(new String[] { "aa", "aa" }, matrix.getRow("a.a"));
+		assertFalse(matrix.isComplete("a.b"));
+		assertEquals(Sets.newHashSet("a.b", "a.c"), matrix.getIncompleteKeys());
+		assertEquals(2, matrix.snapshot(en.getColumn()).size());
+		read.countDown();
+		holder.join();
+	}
+	
+	private static BitSet columns(Resource... resources) {
+		BitSet result = new BitSet();
+		for (Resource resource : resources) {
+			result.set(resource.getColumn());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,57 @@
+package com.jvms.i18neditor.editor;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.jvms.i18neditor.util.ResourceKeys;
+
+/**
+ * Benchmark comparing the single pass {@link TranslationTreeBuilder} with the recursive
+ * tree construction based on {@link ResourceKeys#uniqueRootKeys(List)} and 
+ * {@link ResourceKeys#extractChildKeys(List, String)}.
+ * 
+ * <p>Run this class directly, it is not part of the test suite. The recursive construction 
+ * is skipped for sizes above the (optional) first argument, which defaults to 100000.</p>
+ * 
+ * @author Jacob
+ */
+public class TranslationTreeBuilderBenchmark {
+	
+	public static void main(String[] args) {
+		int recursiveLimit = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		for (int size : new int[] { 10000, 100000, 1000000 }) {
+			List<String> keys = createKeys(size);
+			
+			long start = System.nanoTime();
+			TranslationTreeBuilder.build("root", keys);
+			long builder = (System.nanoTime() - start) / 1000000;
+			
+			String recursive = "skipped";
+			if (size <= recursiveLimit) {
+				start = System.nanoTime();
+				buildRecursive("root", keys);
+				recursive = (System.nanoTime() - start) / 1000000 + " ms";
+			}
+			
+			System.out.println(String.format("%8d keys: builder %6d ms, recursive %s", size, builder, recursive));
+		}
+	}
+	
+	private static TranslationTreeNode buildRecursive(String name, List<String> keys) {
+		TranslationTreeNode node = new TranslationTreeNode(name);
+		ResourceKeys.uniqueRootKeys(keys).forEach(rootKey -> {
+			List<String> subKeys = ResourceKeys.extractChildKeys(keys, rootKey);
+			node.add(buildRecursive(rootKey, subKeys));
+		});
+		return node;
+	}
+	
+	private static List<String> createKeys(int size) {
+		List<String> keys = Lists.newArrayList();
+		for (int i = 0; i < size; i++) {
+			keys.add(String.format("module%03d.page%04d.label%07d", i % 100, i % 1000, i));
+		}
+		keys.sort(null);
+		return keys;
+	}
+}
@@ -0,0 +1,61 @@
+package com.jvms.i18neditor.editor;
+
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.jvms.i18neditor.util.MessageBundle;
+
+/**
+ * Benchmark measuring the cost of looking up tree nodes by key for a growing number of keys.
+ * 
+ * <p>Run this class directly, it is not part of the test suite.</p>
+ * 
+ * @author Jacob
+ */
+public class TranslationTreeModelBenchmark {
+	private final static int LOOKUPS = 10000;
+	
+	public static void main(String[] args) {
+		MessageBundle.loadResources();
+		for (int size : new int[] { 1000, 10000, 100000 }) {
+			List<String> keys = createKeys(size);
+			TranslationTreeModel model = new TranslationTreeModel(keys);
+			Random random = new Random(size);
+			
+			long start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS; i++) {
+				model.getNodeByKey(keys.get(random.nextInt(size)));
+			}
+			long indexed = (System.nanoTime() - start) / LOOKUPS;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < LOOKUPS / 100; i++) {
+				scan(model, keys.get(random.nextInt(size)));
+			}
+			long scanned = (System.nanoTime() - start) / (LOOKUPS / 100);
+			
+			System.out.println(String.format("%7d keys: index %8d ns/lookup, scan %10d ns/lookup", size, indexed, scanned));
+		}
+	}
+	
+	private static TranslationTreeNode scan(TranslationTreeModel model, String key) {
+		Enumeration<TranslationTreeNode> e = model.getEnumeration();
+		while (e.hasMoreElements()) {
+			TranslationTreeNode n = e.nextElement();
+			if (n.getKey().equals(key)) {
+				return n;
+			}
+		}
+		return null;
+	}
+	
+	private static List<String> createKeys(int size) {
+		List<String> keys = Lists.newArrayList();
+		for (int i = 0; i < size; i++) {
+			keys.add("module" + (i % 50) + ".page" + (i % 500) + ".label" + i);
+		}
+		return keys;
+	}
+}
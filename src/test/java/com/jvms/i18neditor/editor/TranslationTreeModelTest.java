@@ -0,0 +1,145 @@
+package com.jvms.i18neditor.editor;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.jvms.i18neditor.util.MessageBundle;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class TranslationTreeModelTest {
+	private TranslationTreeModel model;
+	
+	@Before
+	public void setup() throws Exception {
+		MessageBundle.loadResources();
+		model = new TranslationTreeModel(Lists.newArrayList("a.a", "a.b", "b.a.a", "c"));
+	}
+	
+	@Test
+	public void getNodeByKeyTest() {
+		assertTrue(model.getNodeByKey("").isRoot());
+		assertEquals("a.b", model.getNodeByKey("a.b").getKey());
+		assertEquals("b.a", model.getNodeByKey("b.a").getKey());
+		assertEquals("b.a.a", model.getNodeByKey("b.a.a").getKey());
+		assertNull(model.getNodeByKey("b.b"));
+		assertNull(model.getNodeByKey(null));
+	}
+	
+	@Test
+	public void insertNodeIntoTest() {
+		TranslationTreeNode parent = model.getNodeByKey("b");
+		model.insertNodeInto(new TranslationTreeNode("b", Lists.newArrayList("c.d")), parent);
+		
+		assertSame(parent, model.getNodeByKey("b.b").getParent());
+		assertEquals("b.b.c.d", model.getNodeByKey("b.b.c.d").getKey());
+	}
+	
+	@Test
+	public void removeNodeFromParentTest() {
+		model.removeNodeFromParent(model.getNodeByKey("b"));
+		
+		assertNull(model.getNodeByKey("b"));
+		assertNull(model.getNodeByKey("b.a"));
+		assertNull(model.getNodeByKey("b.a.a"));
+		assertNotNull(model.getNodeByKey("a.a"));
+	}
+	
+	@Test
+	public void renameNodeTest() {
+		TranslationTreeNode node = model.getNodeByKey("b");
+		model.removeNodeFromParent(node);
+		node.setName("d");
+		model.insertNodeInto(node, (TranslationTreeNode) model.getRoot());
+		
+		assertNull(model.getNodeByKey("b.a.a"));
+		assertSame(node, model.getNodeByKey("d"));
+		assertEquals("d.a.a", model.getNodeByKey("d.a.a").getKey());
+	}
+	
+	@Test
+	public void renameAttachedNodeTest() {
+		TranslationTreeNode node = model.getNodeByKey("b.a");
+		model.renameNode(node, "c");
+		
+		assertNull(model.getNodeByKey("b.a"));
+		assertNull(model.getNodeByKey("b.a.a"));
+		assertSame(node, model.getNodeByKey("b.c"));
+		assertSame(node.getChild("a"), model.getNodeByKey("b.c.a"));
+	}
+	
+	@Test
+	public void insertDescendantsIntoTest() {
+		TranslationTreeNode source = new TranslationTreeNode("x", Lists.newArrayList("a", "c.d"));
+		model.insertDescendantsInto(source, model.getNodeByKey("b"));
+		
+		assertEquals("b.a.a", model.getNodeByKey("b.a.a").getKey());
+		assertEquals("b.c.d", model.getNodeByKey("b.c.d").getKey());
+	}
+	
+	@Test
+	public void nodeKeyTest() {
+		TranslationTreeNode node = model.getNodeByKey("b.a");
+		node.setName("c");
+		
+		assertEquals("b.c", node.getKey());
+		assertEquals("b.c.a", node.getChild("a").getKey());
+		
+		TranslationTreeNode clone = node.cloneWithChildren();
+		assertEquals("", clone.getKey());
+		assertEquals("a", clone.getChild("a").getKey());
+		
+		model.insertNodeInto(clone, model.getNodeByKey("a"));
+		assertEquals("a.c", clone.getKey());
+		assertEquals("a.c.a", clone.getChild("a").getKey());
+	}
+	
+	@Test
+	public void hasErrorChildNodeTest() {
+		TranslationTreeNode root = (TranslationTreeNode) model.getRoot();
+		TranslationTreeNode node = model.getNodeByKey("b");
+		model.getNodeByKey("b.a.a").setError(true);
+		
+		assertTrue(model.hasErrorChildNode(node));
+		assertTrue(root.hasErrorChildNode());
+		assertFalse(model.hasErrorChildNode(model.getNodeByKey("a")));
+		
+		model.removeNodeFromParent(node);
+		assertFalse(root.hasErrorChildNode());
+		
+		model.insertNodeInto(node, model.getNodeByKey("a"));
+		assertTrue(model.hasErrorChildNode(model.getNodeByKey("a")));
+		assertTrue(root.hasErrorChildNode());
+		
+		model.getNodeByKey("a.b.a.a").setError(false);
+		assertFalse(model.hasErrorChildNode(model.getNodeByKey("a")));
+		assertFalse(root.hasErrorChildNode());
+	}
+	
+	@Test
+	public void buildTest() {
+		List<String> keys = Lists.newArrayList("a.b", "a.b-c", "a.b.d", "a.c", "b", "b.a.a");
+		TranslationTreeNode root = TranslationTreeBuilder.build("root", keys);
+		
+		assertEquals(Lists.newArrayList("a", "b"), names(root));
+		assertEquals(Lists.newArrayList("b", "b-c", "c"), names(root.getChild("a")));
+		assertEquals(Lists.newArrayList("d"), names(root.getChild("a").getChild("b")));
+		assertEquals("b.a.a", root.getChild("b").getChild("a").getChild("a").getKey());
+		
+		TranslationTreeBuilder.addKeys(root, Lists.newArrayList("a.b.e", "c"));
+		assertEquals(Lists.newArrayList("a", "b", "c"), names(root));
+		assertEquals(Lists.newArrayList("d", "e"), names(root.getChild("a").getChild("b")));
+	}
+	
+	private List<String> names(TranslationTreeNode node) {
+		return node.getChildren().stream().map(TranslationTreeNode::getName).collect(Collectors.toList());
+	}
+}
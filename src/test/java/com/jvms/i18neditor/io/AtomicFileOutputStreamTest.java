@@ -0,0 +1,96 @@
+package com.jvms.i18neditor.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class AtomicFileOutputStreamTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void commitTest() throws IOException {
+		for (WriteDurability durability : WriteDurability.values()) {
+			Path path = folder.getRoot().toPath().resolve(durability + ".json");
+			write(path, durability, "old");
+			write(path, durability, "new");
+			assertEquals("new", read(path));
+		}
+		assertEquals(WriteDurability.values().length, countFiles());
+	}
+	
+	@Test
+	public void discardTest() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("translations.json");
+		write(path, WriteDurability.Atomic, "old");
+		try (AtomicFileOutputStream out = new AtomicFileOutputStream(path, WriteDurability.Atomic)) {
+			out.write("partial".getBytes(StandardCharsets.UTF_8));
+			// The old content remains readable while writing
+			assertEquals("old", read(path));
+		}
+		assertEquals("old", read(path));
+		assertEquals(1, countFiles());
+	}
+	
+	@Test
+	public void symbolicLinkTest() throws IOException {
+		Path target = folder.getRoot().toPath().resolve("target.json");
+		Path link = folder.getRoot().toPath().resolve("link.json");
+		write(target, WriteDurability.Direct, "old");
+		try {
+			Files.createSymbolicLink(link, target);
+		} catch (UnsupportedOperationException | IOException e) {
+			Assume.assumeNoException(e);
+		}
+		write(link, WriteDurability.Atomic, "new");
+		assertTrue(Files.isSymbolicLink(link));
+		assertEquals("new", read(target));
+	}
+	
+	@Test
+	public void permissionsTest() throws IOException {
+		Path path = folder.getRoot().toPath().resolve("translations.json");
+		write(path, WriteDurability.Direct, "old");
+		Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+		try {
+			Files.setPosixFilePermissions(path, permissions);
+		} catch (UnsupportedOperationException e) {
+			Assume.assumeNoException(e);
+		}
+		write(path, WriteDurability.Synced, "new");
+		assertEquals(permissions, Files.getPosixFilePermissions(path));
+	}
+	
+	private void write(Path path, WriteDurability durability, String content) throws IOException {
+		try (AtomicFileOutputStream out = new AtomicFileOutputStream(path, durability)) {
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+			out.commit();
+		}
+	}
+	
+	private String read(Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+	}
+	
+	private long countFiles() throws IOException {
+		try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+			return files.count();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.jvms.i18neditor.io;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Queues;
+import com.google.common.collect.Sets;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class DirectoryWatcherTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void debounceTest() throws Exception {
+		BlockingQueue<Set<Path>> changes = Queues.newLinkedBlockingQueue();
+		Path dir = folder.getRoot().toPath();
+		try (DirectoryWatcher watcher = new DirectoryWatcher(500, 10000, changes::add)) {
+			watcher.register(dir);
+			write(dir.resolve("a.json"));
+			Thread.sleep(50);
+			write(dir.resolve("b.json"));
+			
+			// Changes made in quick succession are reported at once
+			Set<Path> paths = changes.poll(30, TimeUnit.SECONDS);
+			assertNotNull(paths);
+			assertEquals(Sets.newHashSet(dir.resolve("a.json"), dir.resolve("b.json")), paths);
+			assertNull(changes.poll(1, TimeUnit.SECONDS));
+		}
+		changes.clear();
+		write(dir.resolve("c.json"));
+		assertNull(changes.poll(1, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	public void maxDelayTest() throws Exception {
+		BlockingQueue<Set<Path>> changes = Queues.newLinkedBlockingQueue();
+		Path dir = folder.getRoot().toPath();
+		AtomicBoolean writing = new AtomicBoolean(true);
+		try (DirectoryWatcher watcher = new DirectoryWatcher(500, 1000, changes::add)) {
+			watcher.register(dir);
+			Thread writer = new Thread(() -> {
+				try {
+					while (writing.get()) {
+						write(dir.resolve("a.json"));
+						Thread.sleep(100);
+					}
+				} catch (IOException | InterruptedException e) {
+					// stop writing
+				}
+			});
+			writer.start();
+			
+			// Changes which keep coming are reported after the maximum delay
+			Set<Path> paths = changes.poll(5, TimeUnit.SECONDS);
+			writing.set(false);
+			writer.join();
+			assertNotNull(paths);
+			assertEquals(Collections.singleton(dir.resolve("a.json")), paths);
+		}
+	}
+	
+	@Test
+	public void subdirectoryTest() throws Exception {
+		BlockingQueue<Set<Path>> changes = Queues.newLinkedBlockingQueue();
+		Path dir = folder.newFolder("en").toPath();
+		try (DirectoryWatcher watcher = new DirectoryWatcher(100, 10000, changes::add)) {
+			watcher.register(folder.getRoot().toPath());
+			watcher.register(dir);
+			watcher.register(dir);
+			write(dir.resolve("translations.json"));
+			
+			Set<Path> paths = changes.poll(30, TimeUnit.SECONDS);
+			assertNotNull(paths);
+			assertTrue(paths.contains(dir.resolve("translations.json")));
+		}
+	}
+	
+	private void write(Path path) throws IOException {
+		Files.write(path, "{}".getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,113 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.google.common.collect.Maps;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class PropertiesCodecTest {
+	@Test
+	public void readTest() throws IOException {
+		// Reading must give the same result as java.util.Properties
+		assertRead("a=a\nb = b\nc:c\nd  d\ne\n=f\n");
+		assertRead("  # comment\n! comment\n\n\ta = value with  spaces  \n");
+		assertRead("a\\ b\\=c\\:d=e\\tf\\ng\\rh\\fi\\\\j\\k");
+		assertRead("a=\\u00e9\\u20AC\\uD83D\\uDE00\u00e9");
+		assertRead("a=line1 \\\n   line2\\\r\n\tline3\\\rline4\nb=\\\\\nc=c");
+		assertRead("a\\\n b=c\r\nd=e\rf=g");
+		assertRead("a=b\\");
+		assertRead("a = = b\nc :: d\ne\t:\tf");
+		assertRead("#a=b\\\nc=d");
+	}
+	
+	@Test(expected = IOException.class)
+	public void readInvalidEscapeTest() throws IOException {
+		PropertiesCodec.read(new StringReader("a=\\u00g0"), Maps.newHashMap(), null);
+	}
+	
+	@Test
+	public void readCommentsTest() throws IOException {
+		Map<String,String> translations = Maps.newHashMap();
+		Map<String,List<String>> comments = Maps.newHashMap();
+		PropertiesCodec.read(new StringReader("# header\n\n  ! about a\na=a\nb=b\n\n# footer"), translations, comments);
+		
+		assertEquals(2, translations.size());
+		assertEquals(Arrays.asList("# header", "", "! about a"), comments.get("a"));
+		assertNull(comments.get("b"));
+		assertEquals(Arrays.asList("", "# footer"), comments.get(null));
+	}
+	
+	@Test
+	public void writeTest() throws IOException {
+		SortedMap<String,String> translations = new TreeMap<>();
+		translations.put("b", "  leading and trailing  ");
+		translations.put("a key", "=:#!\\\t\n\r\f");
+		translations.put("c", "\u00e9\u20ac\u0001~");
+		translations.put("d", "");
+		
+		// Writing must give the same result as java.util.Properties, without the date comment
+		Properties properties = new Properties();
+		translations.forEach((key, value) -> {
+			if (!value.isEmpty()) {
+				properties.put(key, value);
+			}
+		});
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		properties.store(expected, null);
+		String expectedContent = new String(expected.toByteArray(), StandardCharsets.ISO_8859_1);
+		SortedMap<String,String> expectedLines = new TreeMap<>();
+		Arrays.stream(expectedContent.split(System.lineSeparator())).skip(1)
+			.forEach(line -> expectedLines.put(line, line));
+		
+		StringWriter writer = new StringWriter();
+		PropertiesCodec.write(writer, translations, null);
+		assertEquals(String.join(System.lineSeparator(), expectedLines.keySet()) + System.lineSeparator(),
+				writer.toString());
+		
+		Map<String,String> read = Maps.newHashMap();
+		PropertiesCodec.read(new StringReader(writer.toString()), read, null);
+		translations.remove("d");
+		assertEquals(translations, read);
+	}
+	
+	@Test
+	public void writeCommentsTest() throws IOException {
+		SortedMap<String,String> translations = new TreeMap<>();
+		translations.put("a", "a");
+		translations.put("b", "b");
+		Map<String,List<String>> comments = Maps.newHashMap();
+		comments.put("b", Arrays.asList("# about b", ""));
+		comments.put("c", Arrays.asList("# about c"));
+		comments.put(null, Arrays.asList("# footer"));
+		String nl = System.lineSeparator();
+		
+		StringWriter writer = new StringWriter();
+		PropertiesCodec.write(writer, translations, comments);
+		assertEquals("a=a" + nl + "# about b" + nl + nl + "b=b" + nl + "# footer" + nl, writer.toString());
+	}
+	
+	private void assertRead(String content) throws IOException {
+		Properties expected = new Properties();
+		expected.load(new StringReader(content));
+		Map<String,String> translations = Maps.newHashMap();
+		PropertiesCodec.read(new StringReader(content), translations, null);
+		assertEquals(content, expected, translations);
+	}
+}
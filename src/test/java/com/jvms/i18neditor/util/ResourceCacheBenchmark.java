@@ -0,0 +1,74 @@
+package com.jvms.i18neditor.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedMap;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationMatrix;
+
+/**
+ * Benchmark comparing parsing the resource files of a project with reading them from the resource cache.
+ * 
+ * <p>Run this class directly, it is not part of the test suite.</p>
+ * 
+ * @author Jacob
+ */
+public class ResourceCacheBenchmark {
+	private final static int LOCALES = 70;
+	private final static int KEYS = 5000;
+	private final static int RUNS = 5;
+	
+	public static void main(String[] args) throws IOException {
+		Path root = Files.createTempDirectory("i18n-editor-cache");
+		try {
+			Path cache = root.resolve(".i18n-editor-cache");
+			List<Resource> resources = getResources(root);
+			for (Resource resource : resources) {
+				SortedMap<String,String> translations = Maps.newTreeMap();
+				for (int i = 0; i < KEYS; i++) {
+					translations.put("module" + (i % 50) + ".page" + (i % 250) + ".label" + i, 
+							resource.getLocale() + " value of label " + i);
+				}
+				resource.setTranslations(translations);
+				Resources.write(resource, true, false);
+			}
+			ResourceCache.write(cache, root, resources);
+			
+			for (int run = 0; run < RUNS; run++) {
+				long start = System.nanoTime();
+				for (Resource resource : getResources(root)) {
+					Resources.load(resource);
+				}
+				long parseElapsed = (System.nanoTime() - start) / 1000000;
+				
+				start = System.nanoTime();
+				int cached = ResourceCache.read(cache, root, getResources(root)).size();
+				long cacheElapsed = (System.nanoTime() - start) / 1000000;
+				
+				System.out.println(String.format("%d files of %d keys: %6d ms parsing, %6d ms from cache (%d cached)", 
+						LOCALES, KEYS, parseElapsed, cacheElapsed, cached));
+			}
+		} finally {
+			MoreFiles.deleteRecursively(root, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+	
+	private static List<Resource> getResources(Path root) {
+		TranslationMatrix matrix = new TranslationMatrix();
+		List<Resource> result = Lists.newArrayList();
+		for (int i = 0; i < LOCALES; i++) {
+			Locale locale = new Locale("l" + i);
+			result.add(new Resource(ResourceType.JSON, root.resolve("translations_" + locale + ".json"), locale, matrix));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,122 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.TranslationMatrix;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class ResourceCacheTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	private Path root;
+	private Path cache;
+	
+	@Before
+	public void setup() throws IOException {
+		root = folder.getRoot().toPath();
+		cache = root.resolve(".i18n-editor-cache");
+		write("translations_en.json", "{\"a\": {\"a\": \"aa\", \"b\": \"ab\"}, \"b\": \"b\"}");
+		write("translations_nl.json", "{\"a\": {\"a\": \"nl aa\"}, \"c\": \"\u00e9\u00e8\"}");
+	}
+	
+	@Test
+	public void readTest() throws IOException {
+		List<Resource> loaded = loadResources();
+		ResourceCache.write(cache, root, loaded);
+		
+		List<Resource> resources = getResources();
+		assertEquals(resources, ResourceCache.read(cache, root, resources));
+		for (int i = 0; i < resources.size(); i++) {
+			assertEquals(loaded.get(i).getTranslations(), resources.get(i).getTranslations());
+			assertEquals(loaded.get(i).getChecksum(), resources.get(i).getChecksum());
+			assertEquals(loaded.get(i).getFileStamp(), resources.get(i).getFileStamp());
+		}
+		assertEquals("\u00e9\u00e8", resources.get(1).getTranslation("c"));
+	}
+	
+	@Test
+	public void changedFileTest() throws IOException {
+		ResourceCache.write(cache, root, loadResources());
+		write("translations_nl.json", "{\"a\": {\"a\": \"changed\"}}");
+		
+		List<Resource> resources = getResources();
+		assertEquals(Lists.newArrayList(resources.get(0)), ResourceCache.read(cache, root, resources));
+		assertEquals("b", resources.get(0).getTranslation("b"));
+		assertTrue(resources.get(1).getTranslations().isEmpty());
+	}
+	
+	@Test
+	public void racyFileTest() throws IOException {
+		ResourceCache.write(cache, root, loadResources());
+		Path path = root.resolve("translations_en.json");
+		FileTime lastModifiedTime = Files.getLastModifiedTime(path);
+		write("translations_en.json", "{\"a\": {\"a\": \"aa\", \"b\": \"ab\"}, \"b\": \"c\"}");
+		Files.setLastModifiedTime(path, lastModifiedTime);
+	
+		// The file has been changed right after the cache was written, so its checksum is compared
+		List<Resource> resources = getResources();
+		assertEquals(Lists.newArrayList(resources.get(1)), ResourceCache.read(cache, root, resources));
+		assertNull(resources.get(0).getTranslation("b"));
+	}
+	
+	@Test
+	public void dirtyResourceTest() throws IOException {
+		List<Resource> loaded = loadResources();
+		loaded.get(0).storeTranslation("b", "changed");
+		ResourceCache.write(cache, root, loaded);
+		
+		// Resources with unsaved changes are not cached, as the cache would no longer match the file
+		List<Resource> resources = getResources();
+		assertEquals(Lists.newArrayList(resources.get(1)), ResourceCache.read(cache, root, resources));
+	}
+	
+	@Test
+	public void invalidCacheTest() throws IOException {
+		ResourceCache.write(cache, root, loadResources());
+		byte[] content = Files.readAllBytes(cache);
+		Files.write(cache, Arrays.copyOf(content, content.length / 2));
+		
+		List<Resource> resources = getResources();
+		assertTrue(ResourceCache.read(cache, root, resources).isEmpty());
+		assertTrue(ResourceCache.read(root.resolve("missing"), root, resources).isEmpty());
+	}
+	
+	private List<Resource> getResources() {
+		TranslationMatrix matrix = new TranslationMatrix();
+		return Lists.newArrayList(
+				new Resource(ResourceType.JSON, root.resolve("translations_en.json"), new Locale("en"), matrix),
+				new Resource(ResourceType.JSON, root.resolve("translations_nl.json"), new Locale("nl"), matrix));
+	}
+	
+	private List<Resource> loadResources() throws IOException {
+		List<Resource> resources = getResources();
+		for (Resource resource : resources) {
+			Resources.load(resource);
+		}
+		return resources;
+	}
+	
+	private void write(String filename, String content) throws IOException {
+		Files.write(root.resolve(filename), content.getBytes(StandardCharsets.UTF_8));
+	}
+}
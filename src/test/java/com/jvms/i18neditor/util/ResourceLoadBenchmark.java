@@ -0,0 +1,67 @@
+package com.jvms.i18neditor.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.io.ChecksumAlgorithm;
+import com.jvms.i18neditor.io.WriteDurability;
+
+/**
+ * Benchmark comparing loading a large JSON resource file as a stream of characters 
+ * with loading it from a memory-mapped buffer.
+ * 
+ * <p>Run this class directly, it is not part of the test suite. The benchmark reports the time 
+ * and the number of bytes allocated by the loading thread, the latter requires a HotSpot JVM.</p>
+ * 
+ * @author Jacob
+ */
+public class ResourceLoadBenchmark {
+	private final static int KEYS = 1000000;
+	private final static int RUNS = 5;
+	
+	public static void main(String[] args) throws IOException {
+		Path file = Files.createTempFile("i18n-editor-load", ".json");
+		try {
+			try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+				writer.write("{\n");
+				for (int i = 0; i < KEYS; i++) {
+					writer.write(String.format("  \"module%d.page%d.label%d\": \"Value of label %d with some more text, \\u00e9\\u00e8\"%s\n", 
+							i % 50, i % 1000, i, i, i < KEYS - 1 ? "," : ""));
+				}
+				writer.write("}\n");
+			}
+			long size = Files.size(file);
+			for (int run = 0; run < RUNS; run++) {
+				long[] stream = load(file, Long.MAX_VALUE);
+				long[] mapped = load(file, 0);
+				System.out.println(String.format("%d MB, %d keys: stream %5d ms %6d MB allocated, mapped %5d ms %6d MB allocated", 
+						size >> 20, KEYS, stream[0], stream[1] >> 20, mapped[0], mapped[1] >> 20));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	private static long[] load(Path file, long threshold) throws IOException {
+		ResourceOptions options = new ResourceOptions(ChecksumAlgorithm.Murmur3, WriteDurability.Atomic, threshold, false);
+		Resource resource = new Resource(ResourceType.JSON, file);
+		System.gc();
+		long allocated = getAllocatedBytes();
+		long start = System.nanoTime();
+		Resources.load(resource, options);
+		long elapsed = (System.nanoTime() - start) / 1000000;
+		return new long[] { elapsed, getAllocatedBytes() - allocated };
+	}
+	
+	@SuppressWarnings("restriction")
+	private static long getAllocatedBytes() {
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
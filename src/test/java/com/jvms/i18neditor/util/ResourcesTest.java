@@ -0,0 +1,340 @@
+package com.jvms.i18neditor.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.jvms.i18neditor.Resource;
+import com.jvms.i18neditor.ResourceType;
+import com.jvms.i18neditor.io.ChecksumAlgorithm;
+import com.jvms.i18neditor.io.ChecksumException;
+import com.jvms.i18neditor.io.FileStamp;
+import com.jvms.i18neditor.io.WriteDurability;
+
+/**
+ * 
+ * @author Jacob
+ */
+public class ResourcesTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void loadJsonTest() throws IOException {
+		Resource resource = load(ResourceType.JSON, "translations.json", 
+				"{\n  \"a\": {\n    \"a\": \"aa\",\n    \"b\": {\n      \"a\": \"aba\"\n    }\n  },\n" + 
+				"  \"b\": null,\n  \"c\": \"line1\\nline2\",\n  \"d\": 1,\n  \"e\": {}\n}");
+		
+		SortedMap<String,String> translations = resource.getTranslations();
+		assertEquals(5, translations.size());
+		assertEquals("aa", translations.get("a.a"));
+		assertEquals("aba", translations.get("a.b.a"));
+		assertEquals("", translations.get("b"));
+		assertEquals("line1\nline2", translations.get("c"));
+		assertEquals("1", translations.get("d"));
+		assertNotNull(resource.getChecksum());
+	}
+	
+	@Test
+	public void loadEs6Test() throws IOException {
+		Resource resource = load(ResourceType.ES6, "translations.js", 
+				"export default {\n  \"a\": {\n    \"a\": \"a;}\"\n  },\n  b: \"b\"\n};\n");
+		
+		SortedMap<String,String> translations = resource.getTranslations();
+		assertEquals(2, translations.size());
+		assertEquals("a;}", translations.get("a.a"));
+		assertEquals("b", translations.get("b"));
+	}
+	
+	@Test(expected=IOException.class)
+	public void loadInvalidJsonTest() throws IOException {
+		load(ResourceType.JSON, "translations.json", "{\"a\": [\"a\"]}");
+	}
+	
+	@Test
+	public void loadMappedTest() throws IOException {
+		String[] contents = {
+				"{\n  \"a\": {\n    \"a\": \"aa\",\n    \"b\": {\n      \"a\": \"aba\"\n    }\n  },\n" + 
+						"  \"b\": null,\n  \"c\": \"line1\\nline2\",\n  \"d\": 1.5e3,\n  \"e\": {},\n  \"f\": true\n}",
+				"\ufeff{\"a\": \"\u00e9\u00e8 \u4e2d \ud83d\ude00\", \"b\": \"\\u00e9 \\\"q\\\" \\\\n\"}",
+				"{a: 'single', 'b': unquoted, // comment\n /* block */ c: \"\" # comment\n}",
+				"{\"\": {\"a\": \"empty name\"}, \"a\": {\"\": \"a\"}}"
+		};
+		for (String content : contents) {
+			assertLoadMapped(ResourceType.JSON, "translations.json", content);
+		}
+		assertLoadMapped(ResourceType.ES6, "translations.js", "export default {\n  \"a\": {\n    \"a\": \"a;}\"\n  },\n  b: \"b\"\n};\n");
+	}
+	
+	@Test
+	public void loadMappedInvalidJsonTest() throws IOException {
+		String[] contents = { "{\"a\": [\"a\"]}", "{\"a\": \"a\"", "{\"a\" \"a\"}", "{\"a\": \"\\x\"}", "" };
+		for (String content : contents) {
+			try {
+				loadMapped(ResourceType.JSON, "translations.json", content);
+				fail(content);
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+	
+	@Test
+	public void writeJsonTest() throws IOException {
+		Resource resource = create(ResourceType.JSON, "translations.json");
+		String nl = System.lineSeparator();
+		
+		Resources.write(resource, true, false);
+		assertEquals("{" + nl + 
+				"  \"a\": {" + nl + 
+				"    \"a\": \"aa\"," + nl + 
+				"    \"b-c\": \"abc\"," + nl + 
+				"    \"b\": {" + nl + 
+				"      \"a\": \"aba\"" + nl + 
+				"    }" + nl +
+				"  }," + nl + 
+				"  \"b\": {}," + nl +
+				"  \"c\": \"c\\n<c>\"" + nl + 
+				"}" + nl, read(resource));
+		
+		Resources.write(resource, false, false);
+		assertEquals("{\"a\":{\"a\":\"aa\",\"b-c\":\"abc\",\"b\":{\"a\":\"aba\"}},\"b\":{},\"c\":\"c\\n<c>\"}" + nl, 
+				read(resource));
+		
+		Resources.write(resource, false, true);
+		assertEquals("{\"a.a\":\"aa\",\"a.b-c\":\"abc\",\"a.b.a\":\"aba\",\"c\":\"c\\n<c>\"}" + nl, read(resource));
+		
+		Resource loaded = new Resource(ResourceType.JSON, resource.getPath());
+		Resources.load(loaded);
+		assertEquals("c\n<c>", loaded.getTranslation("c"));
+		assertEquals("abc", loaded.getTranslation("a.b-c"));
+	}
+	
+	@Test
+	public void writeEs6Test() throws IOException {
+		Resource resource = create(ResourceType.ES6, "translations.js");
+		
+		Resources.write(resource, false, false);
+		assertEquals("export default {\"a\":{\"a\":\"aa\",\"b-c\":\"abc\",\"b\":{\"a\":\"aba\"}},\"b\":{},\"c\":\"c\\n<c>\"};" + 
+				System.lineSeparator(), read(resource));
+		
+		Resource loaded = new Resource(ResourceType.ES6, resource.getPath());
+		Resources.load(loaded);
+		assertEquals(resource.getTranslations().get("a.b.a"), loaded.getTranslation("a.b.a"));
+		assertEquals(4, loaded.getTranslations().size());
+	}
+	
+	@Test
+	public void loadPropertiesTest() throws IOException {
+		Resource resource = load(ResourceType.Properties, "translations.properties", 
+				"# comment\na.a=aa\na.b = line1\\nline2\nb:\\u00e9 \\\n    continued\nc\\\\d\n");
+		
+		SortedMap<String,String> translations = resource.getTranslations();
+		assertEquals(4, translations.size());
+		assertEquals("aa", translations.get("a.a"));
+		assertEquals("line1\nline2", translations.get("a.b"));
+		assertEquals("\u00e9 continued", translations.get("b"));
+		assertEquals("", translations.get("c\\d"));
+		assertNotNull(resource.getChecksum());
+	}
+	
+	@Test
+	public void writePropertiesTest() throws IOException {
+		Resource resource = create(ResourceType.Properties, "translations.properties");
+		resource.storeTranslation("d", " \u00e9=\\");
+		String nl = System.lineSeparator();
+		
+		Resources.write(resource, false, false);
+		assertEquals("a.a=aa" + nl + "a.b-c=abc" + nl + "a.b.a=aba" + nl + "c=c\\n<c>" + nl + 
+				"d=\\ \\u00E9\\=\\\\" + nl, read(resource));
+		
+		Resource loaded = new Resource(ResourceType.Properties, resource.getPath());
+		Resources.load(loaded);
+		assertEquals("c\n<c>", loaded.getTranslation("c"));
+		assertEquals(" \u00e9=\\", loaded.getTranslation("d"));
+		assertEquals(resource.getChecksum(), loaded.getChecksum());
+	}
+	
+	@Test
+	public void writePropertiesCommentsTest() throws IOException {
+		Resource resource = load(ResourceType.Properties, "translations.properties", 
+				"# header\n\nb=b\n! about a\na=a\nc=c\n# footer\n");
+		resource.storeTranslation("c", "");
+		resource.storeTranslation("d", "d");
+		String nl = System.lineSeparator();
+		
+		Resources.write(resource, false, false);
+		assertEquals("a=a" + nl + "b=b" + nl + "d=d" + nl, read(resource));
+		
+		Files.write(resource.getPath(), ("# header\n\nb=b\n! about a\na=a\n# footer\n").getBytes(StandardCharsets.UTF_8));
+		Resources.load(resource);
+		resource.storeTranslation("d", "d");
+		Resources.write(resource, false, false, new ResourceOptions(ChecksumAlgorithm.Murmur3, WriteDurability.Atomic, 
+				ResourceOptions.DEFAULT_MAPPED_LOAD_THRESHOLD, true));
+		assertEquals("! about a" + nl + "a=a" + nl + "# header" + nl + nl + "b=b" + nl + "d=d" + nl + "# footer" + nl, 
+				read(resource));
+	}
+	
+	@Test
+	public void checksumTest() throws IOException {
+		String content = "export default {\"a\": \"a\"};\n";
+		Resource resource = load(ResourceType.ES6, "translations.js", content);
+		HashCode hash = Hashing.murmur3_128().hashString(content, StandardCharsets.UTF_8);
+		assertEquals("Murmur3:" + hash, resource.getChecksum());
+		
+		Resources.write(resource, false, false);
+		hash = Hashing.murmur3_128().hashBytes(Files.readAllBytes(resource.getPath()));
+		assertEquals("Murmur3:" + hash, resource.getChecksum());
+		assertEquals(FileStamp.read(resource.getPath()), resource.getFileStamp());
+		
+		// A checksum is verified using the algorithm it was created with
+		resource.setFileStamp(null);
+		Resources.write(resource, true, false, new ResourceOptions(ChecksumAlgorithm.CRC32C, WriteDurability.Atomic, 
+				ResourceOptions.DEFAULT_MAPPED_LOAD_THRESHOLD, false));
+		assertTrue(resource.getChecksum().startsWith("CRC32C:"));
+	}
+	
+	@Test(expected=ChecksumException.class)
+	public void checksumChangedTest() throws IOException {
+		Resource resource = load(ResourceType.JSON, "translations.json", "{\"a\": \"a\"}");
+		Files.write(resource.getPath(), "{\"a\": \"changed\"}".getBytes(StandardCharsets.UTF_8));
+		Resources.write(resource, false, false);
+	}
+	
+	@Test(expected=ChecksumException.class)
+	public void checksumRacyTest() throws IOException {
+		Resource resource = load(ResourceType.JSON, "translations.json", "{\"a\": \"a\"}");
+		FileTime lastModifiedTime = Files.getLastModifiedTime(resource.getPath());
+		// A change with the same size and last modified time right after loading is only noticed by the checksum
+		Files.write(resource.getPath(), "{\"a\": \"b\"}".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(resource.getPath(), lastModifiedTime);
+		assertEquals(FileStamp.read(resource.getPath()), resource.getFileStamp());
+		Resources.write(resource, false, false);
+	}
+	
+	@Test
+	public void checksumUnchangedTest() throws IOException {
+		Resource resource = load(ResourceType.Properties, "translations.properties", "a=a\n");
+		// Touching the file without changing its content falls back to comparing the checksum
+		Files.setLastModifiedTime(resource.getPath(), FileTime.fromMillis(0));
+		Resources.write(resource, false, false);
+		assertEquals("a=a", read(resource).trim());
+	}
+	
+	@Test
+	public void reloadTest() throws IOException {
+		Resource resource = load(ResourceType.JSON, "translations.json", "{\"a\": \"a\", \"b\": \"b\"}");
+		Files.write(resource.getPath(), "{\"a\": \"changed\", \"c\": \"c\"}".getBytes(StandardCharsets.UTF_8));
+		
+		assertEquals(Sets.newHashSet("a", "b", "c"), Resources.reload(resource, ResourceOptions.DEFAULT));
+		assertEquals("changed", resource.getTranslation("a"));
+		assertNull(resource.getTranslation("b"));
+		assertEquals("c", resource.getTranslation("c"));
+		assertFalse(resource.isDirty());
+		
+		// Files written by the editor itself are not reloaded
+		resource.storeTranslation("d", "d");
+		Resources.write(resource, false, false);
+		resource.setDirty(false);
+		assertTrue(Resources.reload(resource, ResourceOptions.DEFAULT).isEmpty());
+		assertEquals("d", resource.getTranslation("d"));
+	}
+	
+	@Test
+	public void reloadDirtyTest() throws IOException {
+		Resource resource = load(ResourceType.Properties, "translations.properties", "a=a\n");
+		resource.storeTranslation("a", "edited");
+		Files.write(resource.getPath(), "a=changed\n".getBytes(StandardCharsets.UTF_8));
+		
+		// Unsaved changes are kept, the conflict is reported when saving
+		assertTrue(Resources.reload(resource, ResourceOptions.DEFAULT).isEmpty());
+		assertEquals("edited", resource.getTranslation("a"));
+		try {
+			Resources.write(resource, false, false);
+			fail();
+		} catch (ChecksumException e) {
+			// expected
+		}
+	}
+	
+	@Test
+	public void reloadWhileSavingTest() throws IOException {
+		Resource resource = load(ResourceType.Properties, "translations.properties", "a=a\n");
+		resource.storeTranslation("a", "saved");
+		long version = resource.getVersion();
+		SortedMap<String,String> snapshot = resource.snapshot();
+		Files.write(resource.getPath(), "a=changed\n".getBytes(StandardCharsets.UTF_8));
+		try {
+			Resources.write(resource, snapshot, false, false, ResourceOptions.DEFAULT);
+			fail();
+		} catch (ChecksumException e) {
+			// expected
+		}
+		
+		// A failed write keeps the resource dirty, so a reload does not replace the values being saved
+		assertTrue(Resources.reload(resource, ResourceOptions.DEFAULT).isEmpty());
+		assertEquals("saved", resource.getTranslation("a"));
+		assertTrue(resource.isDirty());
+		
+		resource.setChecksum(null);
+		Resources.write(resource, snapshot, false, false, ResourceOptions.DEFAULT);
+		resource.markSaved(version);
+		assertFalse(resource.isDirty());
+		assertTrue(Resources.reload(resource, ResourceOptions.DEFAULT).isEmpty());
+		assertEquals("saved", resource.getTranslation("a"));
+	}
+	
+	private void assertLoadMapped(ResourceType type, String filename, String content) throws IOException {
+		// Loading a mapped file must give the same result as loading it as a stream
+		Resource expected = load(type, filename, content, Long.MAX_VALUE);
+		Resource resource = loadMapped(type, filename, content);
+		assertEquals(content, expected.getTranslations(), resource.getTranslations());
+		assertEquals(content, expected.getChecksum(), resource.getChecksum());
+	}
+	
+	private Resource loadMapped(ResourceType type, String filename, String content) throws IOException {
+		return load(type, filename, content, 0);
+	}
+	
+	private Resource create(ResourceType type, String filename) {
+		SortedMap<String,String> translations = new TreeMap<>();
+		translations.put("a.a", "aa");
+		translations.put("a.b.a", "aba");
+		translations.put("a.b-c", "abc");
+		translations.put("b.a", "");
+		translations.put("c", "c\n<c>");
+		Resource resource = new Resource(type, folder.getRoot().toPath().resolve(filename));
+		resource.setTranslations(translations);
+		return resource;
+	}
+	
+	private String read(Resource resource) throws IOException {
+		return new String(Files.readAllBytes(resource.getPath()), StandardCharsets.UTF_8);
+	}
+	
+	private Resource load(ResourceType type, String filename, String content) throws IOException {
+		return load(type, filename, content, ResourceOptions.DEFAULT_MAPPED_LOAD_THRESHOLD);
+	}
+	
+	private Resource load(ResourceType type, String filename, String content, long mappedLoadThreshold) throws IOException {
+		Path path = folder.getRoot().toPath().resolve(filename);
+		Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+		Resource resource = new Resource(type, path);
+		Resources.load(resource, new ResourceOptions(ChecksumAlgorithm.Murmur3, WriteDurability.Atomic, 
+				mappedLoadThreshold, false));
+		return resource;
+	}
+}